@@ -0,0 +1,123 @@
+package luxuryride.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the write endpoints (rent, buy), so a burst of
+ * checkouts can't take the whole JDBC pool from catalog reads.
+ *
+ * Each caller (the signed-in user, or the remote address) has a
+ * {@link TokenBucket}; an empty bucket gets 429 with Retry-After. Admitted
+ * requests then need one of {@code max-concurrent} permits, waiting at most
+ * {@code queue-timeout} for one; without a permit they get 503. Keep
+ * {@code max-concurrent} below the pool size so reads always find a
+ * connection.
+ *
+ * Buckets live in the bounded {@code rateLimits} cache and are dropped
+ * after a while unused, by which time they would be full again anyway.
+ */
+@Component
+public class AdmissionControl implements HandlerInterceptor {
+
+    /** Token buckets by caller. */
+    public static final String CACHE = "rateLimits";
+
+    // set on requests holding a permit, so afterCompletion gives back only those
+    private static final String PERMIT = AdmissionControl.class.getName() + ".permit";
+
+    private final Cache buckets;
+    private final double rate;
+    private final int burst;
+    private final Semaphore permits;
+    private final long queueTimeoutNanos;
+
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public AdmissionControl(CacheManager cacheManager,
+                            MeterRegistry registry,
+                            @Value("${luxuryride.admission.rate:5}") double rate,
+                            @Value("${luxuryride.admission.burst:10}") int burst,
+                            @Value("${luxuryride.admission.max-concurrent:16}") int maxConcurrent,
+                            @Value("${luxuryride.admission.queue-timeout:50ms}") Duration queueTimeout) {
+        this.buckets = cacheManager.getCache(CACHE);
+        this.rate = rate;
+        this.burst = burst;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+
+        this.admitted = Counter.builder("luxuryride.admission.admitted")
+                .description("Write requests let through admission control")
+                .register(registry);
+        this.rateLimited = Counter.builder("luxuryride.admission.rejected")
+                .description("Write requests turned away by admission control")
+                .tag("reason", "rate_limited")
+                .register(registry);
+        this.overloaded = Counter.builder("luxuryride.admission.rejected")
+                .description("Write requests turned away by admission control")
+                .tag("reason", "overloaded")
+                .register(registry);
+        Gauge.builder("luxuryride.admission.in.flight", permits, p -> Math.max(1, maxConcurrent) - p.availablePermits())
+                .description("Write requests holding a concurrency permit")
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(caller(request), () -> new TokenBucket(rate, burst, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos);
+            return false;
+        }
+        if (!permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            overloaded.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+            return false;
+        }
+        request.setAttribute(PERMIT, Boolean.TRUE);
+        admitted.increment();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT) != null) {
+            request.removeAttribute(PERMIT);
+            permits.release();
+        }
+    }
+
+    private static String caller(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos) {
+        response.setStatus(status.value());
+        // whole seconds, rounded up so the client doesn't come back too early
+        long seconds = Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+    }
+}
@@ -0,0 +1,45 @@
+package luxuryride.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket: {@code rate} tokens per second, holding at most
+ * {@code burst}.
+ *
+ * Kept as a single "theoretical arrival time" (the generic cell rate
+ * algorithm, which admits exactly what a token bucket does): every admitted
+ * request pushes it one interval further, and a request is refused when
+ * that would put it more than {@code burst} intervals ahead of now. One
+ * compare-and-set per request, no lock, no refill timer.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    // when the bucket will be full again; in the past means it is full
+    private final AtomicLong tat;
+
+    public TokenBucket(double rate, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / rate));
+        this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take a token.
+     * @return 0 if admitted, else how many nanoseconds until one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
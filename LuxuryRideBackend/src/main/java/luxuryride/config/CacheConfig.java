@@ -0,0 +1,84 @@
+package luxuryride.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import luxuryride.admission.AdmissionControl;
+import luxuryride.pricing.PricingEngine;
+import luxuryride.security.TokenService;
+import luxuryride.service.CarService;
+import luxuryride.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded in-process caches (Caffeine, size + TTL eviction, with stats so
+ * the actuator publishes hit/miss metrics for each cache).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${luxuryride.cache.cars.max-size:10000}") long carsMaxSize,
+            @Value("${luxuryride.cache.cars.ttl:10m}") Duration carsTtl,
+            @Value("${luxuryride.cache.catalog.max-size:500}") long catalogMaxSize,
+            @Value("${luxuryride.cache.catalog.ttl:1m}") Duration catalogTtl,
+            @Value("${luxuryride.idempotency.max-size:100000}") long idempotencyMaxSize,
+            @Value("${luxuryride.idempotency.ttl:24h}") Duration idempotencyTtl,
+            @Value("${luxuryride.auth.token-cache-size:10000}") long tokenCacheSize,
+            @Value("${luxuryride.auth.token-ttl:15m}") Duration tokenTtl,
+            @Value("${luxuryride.admission.max-clients:100000}") long maxClients,
+            @Value("${luxuryride.admission.idle-timeout:10m}") Duration clientIdleTimeout,
+            @Value("${luxuryride.pricing.quote-cache-size:100000}") long quoteCacheSize) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.registerCustomCache(CarService.CAR_CACHE, Caffeine.newBuilder()
+                .maximumSize(carsMaxSize)
+                .expireAfterWrite(carsTtl)
+                .recordStats()
+                .build());
+        // serialized single-car responses, sized like the entity cache
+        manager.registerCustomCache(CarService.CAR_JSON_CACHE, Caffeine.newBuilder()
+                .maximumSize(carsMaxSize)
+                .expireAfterWrite(carsTtl)
+                .recordStats()
+                .build());
+        manager.registerCustomCache(CarService.CATALOG_CACHE, Caffeine.newBuilder()
+                .maximumSize(catalogMaxSize)
+                .expireAfterWrite(catalogTtl)
+                .recordStats()
+                .build());
+        // answers to Idempotency-Key requests; the table behind it outlives evictions
+        manager.registerCustomCache(IdempotencyService.CACHE, Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxSize)
+                .expireAfterWrite(idempotencyTtl)
+                .recordStats()
+                .build());
+        // bearer tokens that passed their HMAC check; none outlives its token
+        manager.registerCustomCache(TokenService.CACHE, Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfterWrite(tokenTtl)
+                .recordStats()
+                .build());
+        // per-caller rate limits; an idle caller's bucket has refilled by the time it goes
+        manager.registerCustomCache(AdmissionControl.CACHE, Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(clientIdleTimeout)
+                .recordStats()
+                .build());
+        // memoized quotes; checked against the car's current rate on use, so no TTL
+        manager.registerCustomCache(PricingEngine.CACHE, Caffeine.newBuilder()
+                .maximumSize(quoteCacheSize)
+                .recordStats()
+                .build());
+        // only the caches declared above; don't create unbounded ones on demand
+        manager.setCacheNames(List.of());
+        return manager;
+    }
+}
@@ -0,0 +1,10 @@
+package luxuryride.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} jobs (e.g. the nightly stats rebuild). */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,114 @@
+package luxuryride.config;
+
+import luxuryride.security.TokenAuthenticationFilter;
+import luxuryride.security.TokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.UUID;
+
+/**
+ * Stateless bearer-token security for {@code /api/**}.
+ *
+ * Passwords are checked once, by {@code POST /api/auth/login}, which hands
+ * out a signed token (see {@link TokenService}); every other request only
+ * has its token's HMAC checked. No sessions, no HTTP Basic, and no CSRF
+ * tokens, since nothing is authenticated by a cookie.
+ *
+ * The catalog and rental quotes are public. Fleet data, admin figures,
+ * full listings, exports and catalog writes need ADMIN; the rest needs any
+ * signed-in user.
+ */
+@Configuration
+public class SecurityConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokens) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .cors(Customizer.withDefaults())
+                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new TokenAuthenticationFilter(tokens), UsernamePasswordAuthenticationFilter.class)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/cars", "/api/cars/**", "/api/quotes").permitAll()
+                        .requestMatchers("/actuator/health/**", "/error").permitAll()
+                        .requestMatchers("/api/cars", "/api/cars/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**", "/api/fleet/**", "/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/api/reservations/export", "/api/purchases/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/reservations", "/api/purchases").hasRole("ADMIN")
+                        .anyRequest().authenticated());
+        return http.build();
+    }
+
+    /** {@code {bcrypt}...} by default; stored hashes carry their algorithm's prefix. */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
+
+    /**
+     * The admin account ({@code luxuryride.auth.admin.*}) plus Boot's
+     * {@code spring.security.user}. A password given with an
+     * {@code {id}} prefix is taken as already encoded; a plain one is
+     * hashed here. Without an admin password a random one is logged.
+     */
+    @Bean
+    public UserDetailsService userDetailsService(SecurityProperties security,
+                                                 PasswordEncoder encoder,
+                                                 @Value("${luxuryride.auth.admin.username:admin}") String adminName,
+                                                 @Value("${luxuryride.auth.admin.password:}") String adminPassword) {
+        if (adminPassword.isBlank()) {
+            adminPassword = UUID.randomUUID().toString();
+            log.warn("Using generated admin password: {}", adminPassword);
+        }
+        SecurityProperties.User user = security.getUser();
+        if (user.isPasswordGenerated()) {
+            log.warn("Using generated password for user '{}': {}", user.getName(), user.getPassword());
+        }
+        return new InMemoryUserDetailsManager(
+                User.withUsername(adminName).password(encoded(encoder, adminPassword)).roles("ADMIN").build(),
+                User.withUsername(user.getName()).password(encoded(encoder, user.getPassword()))
+                        .roles(user.getRoles().isEmpty() ? new String[]{"USER"} : user.getRoles().toArray(String[]::new))
+                        .build());
+    }
+
+    /** Checks login passwords; used by the login endpoint only. */
+    @Bean
+    public AuthenticationManager authenticationManager(UserDetailsService users, PasswordEncoder encoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(users);
+        provider.setPasswordEncoder(encoder);
+        return new ProviderManager(provider);
+    }
+
+    private static String encoded(PasswordEncoder encoder, String password) {
+        return password.startsWith("{") && password.indexOf('}') > 1 ? password : encoder.encode(password);
+    }
+}
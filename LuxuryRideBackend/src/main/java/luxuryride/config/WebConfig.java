@@ -0,0 +1,23 @@
+package luxuryride.config;
+
+import luxuryride.admission.AdmissionControl;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Puts admission control in front of the checkout endpoints only; reads never wait on it. */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionControl admissionControl;
+
+    public WebConfig(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControl)
+                .addPathPatterns("/api/reservations/rent", "/api/purchases/buy");
+    }
+}
@@ -0,0 +1,61 @@
+package luxuryride.controller;
+
+import luxuryride.dto.AdminStats;
+import luxuryride.dto.RevenueTotals;
+import luxuryride.stats.StatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Admin dashboard figures, served from the in-memory rollups.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final StatsService statsService;
+
+    public AdminController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    /** GET /api/admin/stats → fleet counts, reservations by status, revenue today / this month / last month / all time */
+    @GetMapping("/stats")
+    public AdminStats getStats() {
+        return statsService.getStats();
+    }
+
+    /** GET /api/admin/stats/daily?from=2030-07-01&to=2030-07-31 (at most 366 days) */
+    @GetMapping("/stats/daily")
+    public ResponseEntity<List<RevenueTotals>> getDaily(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(statsService.getDaily(from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** GET /api/admin/stats/monthly?from=2030-01&to=2030-12 (at most 120 months) */
+    @GetMapping("/stats/monthly")
+    public ResponseEntity<List<RevenueTotals>> getMonthly(@RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                          @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        try {
+            return ResponseEntity.ok(statsService.getMonthly(from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** POST /api/admin/stats/rebuild → recompute the rollups from the database */
+    @PostMapping("/stats/rebuild")
+    public AdminStats rebuild() {
+        return statsService.rebuild();
+    }
+}
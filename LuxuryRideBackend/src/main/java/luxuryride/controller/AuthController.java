@@ -0,0 +1,59 @@
+package luxuryride.controller;
+
+import luxuryride.dto.AuthToken;
+import luxuryride.security.TokenService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Sign-in: trades a user name and password for a short-lived bearer token.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AuthController {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokens;
+
+    public AuthController(AuthenticationManager authenticationManager, TokenService tokens) {
+        this.authenticationManager = authenticationManager;
+        this.tokens = tokens;
+    }
+
+    /**
+     * POST /api/auth/login
+     * JSON body: { "username": "admin", "password": "..." }
+     * → { "token": "...", "tokenType": "Bearer", "expiresAt": "...", "authorities": ["ROLE_ADMIN"] },
+     * or 401 for unknown users and wrong passwords.
+     */
+    @PostMapping("/login")
+    public ResponseEntity<AuthToken> login(@RequestBody LoginRequest dto) {
+        if (dto.getUsername() == null || dto.getPassword() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(dto.getUsername(), dto.getPassword()));
+            return ResponseEntity.ok(tokens.issue(authentication));
+        } catch (AuthenticationException ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    /** DTO for the /login endpoint */
+    public static class LoginRequest {
+        private String username;
+        private String password;
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+}
@@ -1,10 +1,32 @@
 package luxuryride.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import luxuryride.dto.AvailableCar;
+import luxuryride.dto.CachedJson;
+import luxuryride.dto.CarFacets;
+import luxuryride.dto.CarFilter;
+import luxuryride.dto.CarPage;
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.ImportResult;
 import luxuryride.entities.Car;
+import luxuryride.service.CarImportService;
 import luxuryride.service.CarService;
+import luxuryride.service.DataFormat;
+import luxuryride.stream.CarChangeStream;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -13,33 +35,159 @@ import java.util.List;
 public class CarController {
 
     private final CarService service;
+    private final CarImportService importService;
+    private final CarChangeStream changeStream;
 
-    public CarController(CarService service) {
+    public CarController(CarService service, CarImportService importService, CarChangeStream changeStream) {
         this.service = service;
+        this.importService = importService;
+        this.changeStream = changeStream;
     }
 
+    /**
+     * GET /api/cars → every car, as pre-serialized JSON. Conditional requests
+     * (If-None-Match / If-Modified-Since) get 304 while the catalog is unchanged.
+     */
     @GetMapping
-    public List<Car> getAllCars() {
-        return service.getAllCars();
+    public ResponseEntity<byte[]> getAllCars() {
+        return conditional(service.getCatalogJson());
     }
 
+    /**
+     * GET /api/cars?limit=50&after=120&forRent=true&brand=BMW&minPrice=100
+     * Keyset-paginated catalog; pass the returned nextCursor as {@code after}.
+     * The description is omitted unless {@code includeDescription=true}.
+     */
+    @GetMapping(params = "limit")
+    public CarPage getCarPage(@RequestParam int limit,
+                              @RequestParam(required = false) Long after,
+                              @RequestParam(required = false) Boolean forRent,
+                              @RequestParam(required = false) Boolean forSale,
+                              @RequestParam(required = false) Boolean available,
+                              @RequestParam(required = false) Double minPrice,
+                              @RequestParam(required = false) Double maxPrice,
+                              @RequestParam(required = false) String brand,
+                              @RequestParam(defaultValue = "false") boolean includeDescription) {
+        CarFilter filter = new CarFilter(forRent, forSale, available, minPrice, maxPrice, brand);
+        return service.getCarPage(after, limit, filter, includeDescription);
+    }
+
+    /**
+     * GET /api/cars/facets?forRent=true&brand=BMW&minPrice=100
+     * Car counts per filter value (flags, brands, price buckets) under the
+     * same filters the catalog page takes.
+     */
+    @GetMapping("/facets")
+    public CarFacets getFacets(@RequestParam(required = false) Boolean forRent,
+                               @RequestParam(required = false) Boolean forSale,
+                               @RequestParam(required = false) Boolean available,
+                               @RequestParam(required = false) Double minPrice,
+                               @RequestParam(required = false) Double maxPrice,
+                               @RequestParam(required = false) String brand) {
+        return service.getFacets(new CarFilter(forRent, forSale, available, minPrice, maxPrice, brand));
+    }
+
+    /**
+     * GET /api/cars/available?start=2025-07-01&end=2025-07-05
+     * Rentable cars free for the whole period, each with its total rental price.
+     */
+    @GetMapping("/available")
+    public ResponseEntity<List<AvailableCar>> getAvailableCars(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        try {
+            return ResponseEntity.ok(service.getAvailableCars(start, end));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /api/cars/search?q=convertible red porsche&limit=20
+     * Cars whose brand, model or description match the words (or word
+     * prefixes), most relevant first.
+     */
+    @GetMapping("/search")
+    public List<CarSummary> search(@RequestParam String q,
+                                   @RequestParam(defaultValue = "20") int limit) {
+        return service.search(q, limit);
+    }
+
+    /**
+     * GET /api/cars/stream → server-sent events as cars change: {@code car}
+     * events carrying a CarDelta, or {@code reset} when a reconnecting
+     * client (Last-Event-ID) missed too much and should refetch the
+     * catalog. 503 while too many streams are open.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request) {
+        StreamingResponseBody body = changeStream.subscribe(lastEventId);
+        if (body == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        // the stream ends itself after its timeout; don't let the container's async default cut it shorter
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+                .setTimeout(changeStream.timeout().plusMinutes(1).toMillis());
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noStore())
+                // proxies such as nginx would otherwise buffer the events
+                .header("X-Accel-Buffering", "no")
+                .body(body);
+    }
+
+    /** GET /api/cars/{id} → one car, pre-serialized, with an ETag from a digest of its body. */
     @GetMapping("/{id}")
-    public ResponseEntity<Car> getCar(@PathVariable Long id) {
-        return service.getCarById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getCar(@PathVariable Long id) {
+        return service.getCarJson(id)
+                .map(CarController::conditional)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * The body with its validators; Spring answers 304 instead when the
+     * request's If-None-Match or If-Modified-Since still matches. Clients
+     * may keep the body but must revalidate before reusing it.
+     */
+    private static ResponseEntity<byte[]> conditional(CachedJson json) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(json.etag())
+                .lastModified(json.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(json.body());
+    }
+
     @PostMapping
     public Car createCar(@RequestBody Car car) {
         return service.createCar(car);
     }
 
+    /**
+     * POST /api/cars/import
+     * Body is NDJSON (one car object per line) or CSV with a header row
+     * (brand,model,plates,price,available,forRent,forSale,description and
+     * optionally rentalPricePerDay).
+     * The body is streamed; the response reports rejected rows and rows/sec.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ImportResult importCars(@RequestHeader("Content-Type") MediaType contentType,
+                                   InputStream body) throws IOException {
+        return importService.importCars(body, DataFormat.of(contentType));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Car> updateCar(@PathVariable Long id, @RequestBody Car car) {
         try {
             Car updated = service.updateCar(id, car);
             return ResponseEntity.ok(updated);
+        } catch (OptimisticLockingFailureException ex) {
+            // lost the race for this car to another instance, even after retries
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException ex) {
             return ResponseEntity.notFound().build();
         }
@@ -47,7 +195,11 @@ public class CarController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCar(@PathVariable Long id) {
-        service.deleteCar(id);
+        try {
+            service.deleteCar(id);
+        } catch (OptimisticLockingFailureException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         return ResponseEntity.noContent().build();
     }
 }
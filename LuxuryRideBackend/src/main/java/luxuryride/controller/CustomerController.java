@@ -0,0 +1,36 @@
+package luxuryride.controller;
+
+import luxuryride.dto.HistoryPage;
+import luxuryride.service.CustomerHistoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Customer-facing views that span reservations and purchases.
+ */
+@RestController
+@RequestMapping("/api/customers")
+public class CustomerController {
+
+    private final CustomerHistoryService historyService;
+
+    public CustomerController(CustomerHistoryService historyService) {
+        this.historyService = historyService;
+    }
+
+    /**
+     * GET /api/customers/{email}/history?limit=20&cursor=...
+     * Reservations and purchases merged, newest first; pass the returned
+     * nextCursor as {@code cursor} for the next page.
+     */
+    @GetMapping("/{email}/history")
+    public ResponseEntity<HistoryPage> getHistory(@PathVariable String email,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(historyService.getHistory(email, cursor, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package luxuryride.controller;
+
+import luxuryride.dto.FleetOccupancy;
+import luxuryride.service.ReservationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Fleet-wide views for the rentals admin pages.
+ */
+@RestController
+@RequestMapping("/api/fleet")
+public class FleetController {
+
+    private final ReservationService reservationService;
+
+    public FleetController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * GET /api/fleet/occupancy?from=2030-07-01&to=2030-09-30 (at most two years)
+     * Per car: booked days as a packed base64 bitmap, plus utilization percentages.
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<FleetOccupancy> getOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(reservationService.getOccupancy(from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,11 +1,23 @@
 // src/main/java/luxuryride/controller/PurchaseController.java
 package luxuryride.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import luxuryride.dto.PurchaseView;
 import luxuryride.entities.Purchase;
+import luxuryride.service.DataFormat;
+import luxuryride.service.ExportService;
+import luxuryride.service.IdempotencyService;
 import luxuryride.service.PurchaseService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +29,50 @@ import java.util.Optional;
 public class PurchaseController {
 
     private final PurchaseService service;
+    private final ExportService exportService;
+    private final IdempotencyService idempotency;
 
-    public PurchaseController(PurchaseService service) {
+    public PurchaseController(PurchaseService service, ExportService exportService,
+                              IdempotencyService idempotency) {
         this.service = service;
+        this.exportService = exportService;
+        this.idempotency = idempotency;
     }
 
-    /** GET /api/purchases → all purchases */
+    /** GET /api/purchases → all purchases, as flat rows */
     @GetMapping
-    public List<Purchase> getAll() {
+    public List<PurchaseView> getAll() {
         return service.findAll();
     }
 
+    /**
+     * GET /api/purchases/export?from=2025-01-01&to=2025-01-31&format=csv
+     * Streams purchases dated within [from, to] (both optional) as NDJSON (default)
+     * or CSV, straight from a database cursor.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        DataFormat dataFormat;
+        try {
+            dataFormat = DataFormat.of(format);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportPurchases(from, to, dataFormat, out);
+        // a large export outlasts the container's default async timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+                .setTimeout(exportService.timeout().toMillis());
+        return ResponseEntity.ok()
+                .contentType(dataFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"purchases." + dataFormat.extension() + "\"")
+                .body(body);
+    }
+
     /** GET /api/purchases/{id} → one purchase */
     @GetMapping("/{id}")
     public ResponseEntity<Purchase> getOne(@PathVariable Long id) {
@@ -45,20 +90,29 @@ public class PurchaseController {
      *   "customerEmail": "alice@example.com",
      *   "paymentMethod": "Credit Card"
      * }
+     * With an Idempotency-Key header, a retry gets the first answer back
+     * instead of buying again (422 if its body differs).
      */
     @PostMapping("/buy")
-    public ResponseEntity<Purchase> buyCar(@RequestBody BuyRequest dto) {
-        try {
-            Purchase p = service.buyCar(
-                    dto.getCarId(),
-                    dto.getCustomerName(),
-                    dto.getCustomerEmail(),
-                    dto.getPaymentMethod()
-            );
-            return ResponseEntity.ok(p);
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<Purchase> buyCar(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody BuyRequest dto) {
+        return idempotency.execute("buy", idempotencyKey, dto, Purchase.class, () -> {
+            try {
+                Purchase p = service.buyCar(
+                        dto.getCarId(),
+                        dto.getCustomerName(),
+                        dto.getCustomerEmail(),
+                        dto.getPaymentMethod()
+                );
+                return ResponseEntity.ok(p);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().build();
+            } catch (OptimisticLockingFailureException ex) {
+                // lost the race for this car to another instance, even after retries
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        });
     }
 
     /** DELETE /api/purchases/{id} */
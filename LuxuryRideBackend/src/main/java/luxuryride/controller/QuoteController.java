@@ -0,0 +1,44 @@
+package luxuryride.controller;
+
+import luxuryride.dto.Quote;
+import luxuryride.pricing.PricingEngine;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Rental price quotes for the browsing UI, answered from the pricing
+ * engine without touching the database.
+ */
+@RestController
+@RequestMapping("/api/quotes")
+@CrossOrigin(origins = "http://localhost:3000")
+public class QuoteController {
+
+    private final PricingEngine pricing;
+
+    public QuoteController(PricingEngine pricing) {
+        this.pricing = pricing;
+    }
+
+    /**
+     * GET /api/quotes?carId=1&start=2025-07-01&end=2025-07-05
+     * What renting the car over [start, end] costs, rule by rule; 404 for
+     * an unknown car, 400 for a bad period or a car not for rent.
+     */
+    @GetMapping
+    public ResponseEntity<Quote> getQuote(
+            @RequestParam Long carId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        try {
+            return pricing.quote(carId, start, end)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
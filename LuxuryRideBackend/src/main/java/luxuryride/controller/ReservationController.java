@@ -1,10 +1,21 @@
 // src/main/java/luxuryride/controller/ReservationController.java
 package luxuryride.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import luxuryride.dto.ReservationView;
 import luxuryride.entities.Reservation;
+import luxuryride.service.DataFormat;
+import luxuryride.service.ExportService;
+import luxuryride.service.IdempotencyService;
 import luxuryride.service.ReservationService;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,17 +29,50 @@ import java.util.Optional;
 public class ReservationController {
 
     private final ReservationService service;
+    private final ExportService exportService;
+    private final IdempotencyService idempotency;
 
-    public ReservationController(ReservationService service) {
+    public ReservationController(ReservationService service, ExportService exportService,
+                                 IdempotencyService idempotency) {
         this.service = service;
+        this.exportService = exportService;
+        this.idempotency = idempotency;
     }
 
-    /** GET  /api/reservations → all reservations */
+    /** GET  /api/reservations → all reservations, as flat rows */
     @GetMapping
-    public List<Reservation> getAll() {
+    public List<ReservationView> getAll() {
         return service.findAll();
     }
 
+    /**
+     * GET /api/reservations/export?from=2025-01-01&to=2025-01-31&format=csv
+     * Streams reservations starting within [from, to] (both optional) as
+     * NDJSON (default) or CSV, straight from a database cursor.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        DataFormat dataFormat;
+        try {
+            dataFormat = DataFormat.of(format);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportReservations(from, to, dataFormat, out);
+        // a large export outlasts the container's default async timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+                .setTimeout(exportService.timeout().toMillis());
+        return ResponseEntity.ok()
+                .contentType(dataFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations." + dataFormat.extension() + "\"")
+                .body(body);
+    }
+
     /** GET  /api/reservations/{id} → one reservation */
     @GetMapping("/{id}")
     public ResponseEntity<Reservation> getOne(@PathVariable Long id) {
@@ -47,35 +91,49 @@ public class ReservationController {
      *   "startDate": "2025-07-01",
      *   "endDate": "2025-07-05"
      * }
+     * With an Idempotency-Key header, a retry gets the first answer back
+     * instead of booking again (422 if its body differs).
      */
     @PostMapping("/rent")
-    public ResponseEntity<Reservation> rentCar(@RequestBody RentRequest dto) {
-        try {
-            Reservation r = service.rentCar(
-                    dto.getCarId(),
-                    dto.getCustomerName(),
-                    dto.getCustomerEmail(),
-                    dto.getStartDate(),
-                    dto.getEndDate()
-            );
-            return ResponseEntity.ok(r);
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<Reservation> rentCar(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody RentRequest dto) {
+        return idempotency.execute("rent", idempotencyKey, dto, Reservation.class, () -> {
+            try {
+                Reservation r = service.rentCar(
+                        dto.getCarId(),
+                        dto.getCustomerName(),
+                        dto.getCustomerEmail(),
+                        dto.getStartDate(),
+                        dto.getEndDate()
+                );
+                return ResponseEntity.ok(r);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().build();
+            } catch (OptimisticLockingFailureException ex) {
+                // lost the race for this car to another instance, even after retries
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        });
     }
 
     /**
      * PUT /api/reservations/{id}
      * Expects full Reservation JSON for updatable fields.
+     * Returns 400 if the new dates are invalid or already booked.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Reservation> update(
             @PathVariable Long id,
             @RequestBody Reservation updated
     ) {
-        Optional<Reservation> opt = service.updateReservation(id, updated);
-        return opt.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            Optional<Reservation> opt = service.updateReservation(id, updated);
+            return opt.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /** DELETE /api/reservations/{id} */
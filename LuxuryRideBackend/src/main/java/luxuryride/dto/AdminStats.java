@@ -0,0 +1,16 @@
+package luxuryride.dto;
+
+import luxuryride.entities.Reservation;
+
+import java.time.Instant;
+import java.util.Map;
+
+/** Dashboard numbers, read from the rollups without touching the database. */
+public record AdminStats(FleetCounts fleet,
+                         Map<Reservation.Status, Long> reservationsByStatus,
+                         RevenueTotals allTime,
+                         RevenueTotals today,
+                         RevenueTotals thisMonth,
+                         RevenueTotals lastMonth,
+                         Instant rebuiltAt) {
+}
@@ -0,0 +1,8 @@
+package luxuryride.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/** What a successful login returns: send {@code Authorization: Bearer <token>} until {@code expiresAt}. */
+public record AuthToken(String token, String tokenType, Instant expiresAt, List<String> authorities) {
+}
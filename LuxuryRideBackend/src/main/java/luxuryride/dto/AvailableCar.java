@@ -0,0 +1,7 @@
+package luxuryride.dto;
+
+/**
+ * A car that is free for the requested rental period, with its quoted price.
+ */
+public record AvailableCar(CarSummary car, long days, double totalPrice) {
+}
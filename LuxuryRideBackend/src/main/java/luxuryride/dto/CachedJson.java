@@ -0,0 +1,11 @@
+package luxuryride.dto;
+
+import java.time.Instant;
+
+/**
+ * A response body serialized once and served as-is until what it was built
+ * from changes, with the validators conditional GETs are checked against.
+ * {@code etag} is strong: equal tags mean byte-identical bodies.
+ */
+public record CachedJson(String etag, Instant lastModified, byte[] body) {
+}
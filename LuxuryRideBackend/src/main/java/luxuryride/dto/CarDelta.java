@@ -0,0 +1,26 @@
+package luxuryride.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * What the car stream sends when a car changes: the fields the rentals and
+ * sales pages show, or only the id and {@code deleted} once the car is gone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CarDelta(Long id,
+                       Boolean available,
+                       Boolean forRent,
+                       Boolean forSale,
+                       Double price,
+                       Double rentalPricePerDay,
+                       Boolean deleted) {
+
+    public static CarDelta of(CarSummary car) {
+        return new CarDelta(car.id(), car.available(), car.forRent(), car.forSale(), car.price(),
+                car.rentalPricePerDay(), null);
+    }
+
+    public static CarDelta deleted(Long carId) {
+        return new CarDelta(carId, null, null, null, null, null, true);
+    }
+}
@@ -0,0 +1,25 @@
+package luxuryride.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts shown next to the catalog filters. {@code total} is the number of
+ * cars matching the whole filter; every other count applies all filters
+ * except the one on its own attribute, so it tells how many cars choosing
+ * that value would give ("41 for rent", "12 BMW").
+ */
+public record CarFacets(int total,
+                        int forRent,
+                        int forSale,
+                        int available,
+                        Map<String, Integer> brands,
+                        List<PriceBucket> prices) {
+
+    /** Cars priced in [min, max); a {@code null} bound is open. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PriceBucket(Double min, Double max, int count) {
+    }
+}
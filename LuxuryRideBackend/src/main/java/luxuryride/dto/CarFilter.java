@@ -0,0 +1,13 @@
+package luxuryride.dto;
+
+/**
+ * Optional server-side filters for the catalog listing; a {@code null}
+ * component means "don't filter on this attribute".
+ */
+public record CarFilter(Boolean forRent,
+                        Boolean forSale,
+                        Boolean available,
+                        Double minPrice,
+                        Double maxPrice,
+                        String brand) {
+}
@@ -0,0 +1,15 @@
+package luxuryride.dto;
+
+/**
+ * One car's row of the rentals calendar.
+ * {@code bitmap} is base64 of the packed days: bit {@code i % 8} of byte
+ * {@code i / 8} is set when day {@code from + i} is booked
+ * (the little-endian layout of {@link java.util.BitSet#toByteArray()}).
+ */
+public record CarOccupancy(Long carId,
+                           String brand,
+                           String model,
+                           int bookedDays,
+                           double utilization,
+                           String bitmap) {
+}
@@ -0,0 +1,11 @@
+package luxuryride.dto;
+
+import java.util.List;
+
+/**
+ * One page of the keyset-paginated catalog.
+ * {@code nextCursor} is the id to pass as {@code after} for the next page,
+ * or {@code null} when this is the last page.
+ */
+public record CarPage(List<CarSummary> items, Long nextCursor) {
+}
@@ -0,0 +1,9 @@
+package luxuryride.dto;
+
+/** The flags of a car that fleet counts are made of. */
+public record CarStatus(Long id, boolean available, boolean forRent, boolean forSale) {
+
+    public static CarStatus of(CarSummary car) {
+        return new CarStatus(car.id(), car.available(), car.forRent(), car.forSale());
+    }
+}
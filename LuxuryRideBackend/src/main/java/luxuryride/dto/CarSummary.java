@@ -0,0 +1,83 @@
+package luxuryride.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import luxuryride.entities.Car;
+
+/**
+ * Lightweight, read-only view of a {@link Car} used by the catalog listing.
+ * The TEXT description is only populated when explicitly requested;
+ * {@code rentalPricePerDay} is null for cars that rent at their sale price.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CarSummary(Long id,
+                         String brand,
+                         String model,
+                         String plates,
+                         double price,
+                         boolean available,
+                         boolean forRent,
+                         boolean forSale,
+                         String description,
+                         Double rentalPricePerDay) {
+
+    /** Constructor used by JPQL projections that skip the description column. */
+    public CarSummary(Long id,
+                      String brand,
+                      String model,
+                      String plates,
+                      double price,
+                      boolean available,
+                      boolean forRent,
+                      boolean forSale,
+                      Double rentalPricePerDay) {
+        this(id, brand, model, plates, price, available, forRent, forSale, null, rentalPricePerDay);
+    }
+
+    public CarSummary(Long id,
+                      String brand,
+                      String model,
+                      String plates,
+                      double price,
+                      boolean available,
+                      boolean forRent,
+                      boolean forSale,
+                      String description) {
+        this(id, brand, model, plates, price, available, forRent, forSale, description, null);
+    }
+
+    public CarSummary(Long id,
+                      String brand,
+                      String model,
+                      String plates,
+                      double price,
+                      boolean available,
+                      boolean forRent,
+                      boolean forSale) {
+        this(id, brand, model, plates, price, available, forRent, forSale, null, null);
+    }
+
+    /** The base daily rate a rental starts from, before pricing rules. */
+    public double dailyRentalRate() {
+        return rentalPricePerDay != null ? rentalPricePerDay : price;
+    }
+
+    public CarSummary withoutDescription() {
+        return description == null ? this
+                : new CarSummary(id, brand, model, plates, price, available, forRent, forSale, null, rentalPricePerDay);
+    }
+
+    public static CarSummary of(Car car, boolean includeDescription) {
+        return new CarSummary(
+                car.getId(),
+                car.getBrand(),
+                car.getModel(),
+                car.getPlates(),
+                car.getPrice(),
+                car.isAvailable(),
+                car.isForRent(),
+                car.isForSale(),
+                includeDescription ? car.getDescription() : null,
+                car.getRentalPricePerDay()
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package luxuryride.dto;
+
+import luxuryride.entities.Reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Rows of one day (and, for reservations, one status) summed in the
+ * database: how many, and their total amount. {@code status} is null for
+ * purchases.
+ */
+public record DailyTotal(LocalDate day,
+                         Reservation.Status status,
+                         Long count,
+                         Double amount) {
+
+    /** Purchase rows have no status. */
+    public DailyTotal(LocalDate day, Long count, Double amount) {
+        this(day, null, count, amount);
+    }
+}
@@ -0,0 +1,4 @@
+package luxuryride.dto;
+
+public record FleetCounts(long total, long available, long forRent, long forSale) {
+}
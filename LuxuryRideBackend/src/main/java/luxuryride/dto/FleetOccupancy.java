@@ -0,0 +1,16 @@
+package luxuryride.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Booked days of the fleet over [from, to] (inclusive), for the rentals
+ * calendar. {@code utilization} is the percentage of car-days booked.
+ */
+public record FleetOccupancy(LocalDate from,
+                             LocalDate to,
+                             int days,
+                             long bookedDays,
+                             double utilization,
+                             List<CarOccupancy> cars) {
+}
@@ -0,0 +1,34 @@
+package luxuryride.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a customer's history: either a reservation (dated by its start
+ * day) or a purchase. {@code status} is only set for reservations.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HistoryEntry(Type type,
+                           Long id,
+                           LocalDate date,
+                           Long carId,
+                           String carBrand,
+                           String carModel,
+                           Double amount,
+                           String status) {
+
+    /** Declared in the order entries of the same day are listed. */
+    public enum Type { PURCHASE, RESERVATION }
+
+    public static HistoryEntry of(PurchaseView p) {
+        return new HistoryEntry(Type.PURCHASE, p.id(), p.purchaseDate(), p.carId(),
+                p.carBrand(), p.carModel(), p.amount(), null);
+    }
+
+    public static HistoryEntry of(ReservationView r) {
+        return new HistoryEntry(Type.RESERVATION, r.id(), r.startDate(), r.carId(),
+                r.carBrand(), r.carModel(), r.totalPrice(),
+                r.status() == null ? null : r.status().name());
+    }
+}
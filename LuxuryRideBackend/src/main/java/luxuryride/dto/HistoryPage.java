@@ -0,0 +1,11 @@
+package luxuryride.dto;
+
+import java.util.List;
+
+/**
+ * One page of a customer's merged history, newest first.
+ * {@code nextCursor} is opaque; pass it back as {@code cursor}, or it is
+ * {@code null} on the last page.
+ */
+public record HistoryPage(List<HistoryEntry> items, String nextCursor) {
+}
@@ -0,0 +1,20 @@
+package luxuryride.dto;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk car import. {@code errors} is capped; when more rows
+ * failed than were reported, {@code errorsTruncated} is true.
+ */
+public record ImportResult(long rowsRead,
+                           long inserted,
+                           long failed,
+                           List<RowError> errors,
+                           boolean errorsTruncated,
+                           long elapsedMillis,
+                           double rowsPerSecond) {
+
+    /** A rejected input line (1-based, header included for CSV). */
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,10 @@
+package luxuryride.dto;
+
+import java.time.Instant;
+
+/**
+ * A PENDING reservation as the expiry scheduler needs it: which car it
+ * holds and since when ({@code null} for rows older than the column).
+ */
+public record PendingHold(Long reservationId, Long carId, Instant createdAt) {
+}
@@ -0,0 +1,18 @@
+package luxuryride.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only purchase row for listings (see {@link ReservationView}).
+ */
+public record PurchaseView(Long id,
+                           Long carId,
+                           String carBrand,
+                           String carModel,
+                           String carPlates,
+                           String customerName,
+                           String customerEmail,
+                           LocalDate purchaseDate,
+                           Double amount,
+                           String paymentMethod) {
+}
@@ -0,0 +1,19 @@
+package luxuryride.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The price of renting one car for [startDate, endDate]: {@code dailyRate}
+ * is the car's rental rate with its brand rule applied, {@code subtotal}
+ * adds the day-of-week and season rules over the period, and
+ * {@code discount} is the length-of-rental discount taken off it.
+ */
+public record Quote(Long carId,
+                    LocalDate startDate,
+                    LocalDate endDate,
+                    long days,
+                    double dailyRate,
+                    double subtotal,
+                    double discount,
+                    double totalPrice) {
+}
@@ -0,0 +1,12 @@
+package luxuryride.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The date range a reservation occupies on a car, without the rest of the row.
+ */
+public record ReservationSlot(Long reservationId,
+                              Long carId,
+                              LocalDate startDate,
+                              LocalDate endDate) {
+}
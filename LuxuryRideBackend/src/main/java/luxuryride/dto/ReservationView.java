@@ -0,0 +1,22 @@
+package luxuryride.dto;
+
+import luxuryride.entities.Reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only reservation row for listings: the car is reduced to the
+ * few columns a list needs, so no Car entity (or its description) is loaded.
+ */
+public record ReservationView(Long id,
+                              Long carId,
+                              String carBrand,
+                              String carModel,
+                              String carPlates,
+                              String customerName,
+                              String customerEmail,
+                              LocalDate startDate,
+                              LocalDate endDate,
+                              Double totalPrice,
+                              Reservation.Status status) {
+}
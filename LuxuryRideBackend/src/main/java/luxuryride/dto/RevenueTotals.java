@@ -0,0 +1,14 @@
+package luxuryride.dto;
+
+/**
+ * Sales and rentals over one period (a day {@code 2030-07-01}, a month
+ * {@code 2030-07} or {@code all}). Rentals are counted on their start date
+ * and cancelled ones are left out.
+ */
+public record RevenueTotals(String period,
+                            long purchases,
+                            double purchaseRevenue,
+                            long reservations,
+                            double reservationRevenue,
+                            double revenue) {
+}
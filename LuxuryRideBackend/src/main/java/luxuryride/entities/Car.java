@@ -1,10 +1,18 @@
 package luxuryride.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.Objects;
 
 @Entity
-@Table(name = "cars")
+@Table(name = "cars", indexes = {
+        // keyset pagination always orders by id, so each filter index ends with it
+        @Index(name = "idx_cars_for_rent", columnList = "forRent, id"),
+        @Index(name = "idx_cars_for_sale", columnList = "forSale, id"),
+        @Index(name = "idx_cars_available", columnList = "available, id"),
+        @Index(name = "idx_cars_brand", columnList = "brand, id"),
+        @Index(name = "idx_cars_price", columnList = "price")
+})
 public class Car {
 
     @Id
@@ -15,6 +23,10 @@ public class Car {
     private String model;
     private String plates;
     private double price;
+
+    /** Daily rental rate before pricing rules; {@code null} rents at the sale {@code price}. */
+    private Double rentalPricePerDay;
+
     private boolean available;
     private boolean forRent;
     private boolean forSale;
@@ -22,6 +34,14 @@ public class Car {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    /**
+     * Optimistic-lock version, bumped on every change and every checkout.
+     * Not part of the JSON, so a rental doesn't change the published car.
+     */
+    @Version
+    @JsonIgnore
+    private Long version;
+
     /** Default constructor for JPA **/
     public Car() { }
 
@@ -61,6 +81,9 @@ public class Car {
     public double getPrice() { return price; }
     public void setPrice(double price) { this.price = price; }
 
+    public Double getRentalPricePerDay() { return rentalPricePerDay; }
+    public void setRentalPricePerDay(Double rentalPricePerDay) { this.rentalPricePerDay = rentalPricePerDay; }
+
     public boolean isAvailable() { return available; }
     public void setAvailable(boolean available) { this.available = available; }
 
@@ -73,6 +96,9 @@ public class Car {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     // equals & hashCode (based on id)
 
     @Override
@@ -98,10 +124,12 @@ public class Car {
                 ", model='" + model + '\'' +
                 ", plates='" + plates + '\'' +
                 ", price=" + price +
+                ", rentalPricePerDay=" + rentalPricePerDay +
                 ", available=" + available +
                 ", forRent=" + forRent +
                 ", forSale=" + forSale +
                 ", description='" + description + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
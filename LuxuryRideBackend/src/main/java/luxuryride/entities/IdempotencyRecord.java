@@ -0,0 +1,59 @@
+package luxuryride.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * The stored outcome of a request sent with an {@code Idempotency-Key}:
+ * what the first attempt answered, so retries get the same answer.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // expired keys are purged by age
+        @Index(name = "idx_idempotency_keys_created", columnList = "createdAt")
+})
+public class IdempotencyRecord {
+
+    /** Operation, caller and client key, e.g. {@code rent:alice:5f1c...}. */
+    @Id
+    @Column(name = "idempotency_key", length = 512)
+    private String key;
+
+    /** SHA-256 of the request body; a retry with another body is refused. */
+    @Column(length = 64, nullable = false)
+    private String fingerprint;
+
+    private int status;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public IdempotencyRecord() { }
+
+    public IdempotencyRecord(String key, String fingerprint, int status, String body, Instant createdAt) {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
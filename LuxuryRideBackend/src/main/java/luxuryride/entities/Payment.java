@@ -13,8 +13,12 @@ import java.time.LocalDate;
 @Entity
 public class Payment {
 
+    // the pooled Payment_SEQ that GenerationType.AUTO created, spelled out so
+    // its name and increment can't drift: the payment writer's batches need it
+    // pooled, and existing rows hold its earlier values
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Payment_SEQ")
+    @SequenceGenerator(name = "Payment_SEQ", sequenceName = "Payment_SEQ", allocationSize = 50)
     private Long Id;
 
     @ManyToOne
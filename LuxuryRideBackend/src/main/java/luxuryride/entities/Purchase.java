@@ -5,7 +5,12 @@ import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "purchases")
+@Table(name = "purchases", indexes = {
+        // per-customer history is read newest first with an (date, id) keyset
+        @Index(name = "idx_purchases_customer_date", columnList = "customerEmail, purchaseDate, id"),
+        @Index(name = "idx_purchases_car", columnList = "car_id"),
+        @Index(name = "idx_purchases_date", columnList = "purchaseDate")
+})
 public class Purchase {
 
     @Id
@@ -13,7 +18,7 @@ public class Purchase {
     private Long id;
 
     // ← Associate each purchase with a Car
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id", nullable = false)
     private Car car;
 
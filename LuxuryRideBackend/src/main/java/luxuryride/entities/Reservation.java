@@ -1,11 +1,21 @@
 package luxuryride.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // per-customer history is read newest first with an (date, id) keyset
+        @Index(name = "idx_reservations_customer_start", columnList = "customerEmail, startDate, id"),
+        @Index(name = "idx_reservations_car", columnList = "car_id"),
+        @Index(name = "idx_reservations_dates", columnList = "startDate, endDate"),
+        // pending holds are reloaded at startup
+        @Index(name = "idx_reservations_status", columnList = "status")
+})
 public class Reservation {
 
     public enum Status { PENDING, CONFIRMED, CANCELLED }
@@ -14,7 +24,7 @@ public class Reservation {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id", nullable = false)
     private Car car;                      // ← Car field
 
@@ -27,6 +37,11 @@ public class Reservation {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    /** Set on insert; a PENDING reservation's hold runs from here. */
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
     public Reservation() {}
 
     public Reservation(Long id, Car car, String customerName, String customerEmail,
@@ -66,6 +81,9 @@ public class Reservation {
     public Status getStatus() { return status; }
     public void setStatus(Status status) { this.status = status; }
 
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
 
     @Override
     public boolean equals(Object o) {
@@ -91,6 +109,7 @@ public class Reservation {
                 ", endDate=" + endDate +
                 ", totalPrice=" + totalPrice +
                 ", status=" + status +
+                ", createdAt=" + createdAt +
                 '}';
     }
 }
@@ -0,0 +1,25 @@
+package luxuryride.events;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.entities.Car;
+
+/**
+ * Published after a change to a car has been committed: created, updated,
+ * sold, rented (its version moved) or deleted.
+ * {@code car} is an immutable snapshot of the new state including the
+ * description, or {@code null} when the car was deleted.
+ */
+public record CarChangedEvent(Long carId, CarSummary car) {
+
+    public static CarChangedEvent saved(Car car) {
+        return new CarChangedEvent(car.getId(), CarSummary.of(car, true));
+    }
+
+    public static CarChangedEvent deleted(Long carId) {
+        return new CarChangedEvent(carId, null);
+    }
+
+    public boolean isDeleted() {
+        return car == null;
+    }
+}
@@ -0,0 +1,14 @@
+package luxuryride.events;
+
+import luxuryride.dto.CarSummary;
+
+import java.util.List;
+
+/**
+ * Published after a batch of imported cars has been committed. The cars are
+ * all new; {@code cars} holds a snapshot of each, including the description.
+ * One event per batch rather than a {@link CarChangedEvent} per car, so
+ * listeners take their locks once and the car stream sends one frame.
+ */
+public record CarsImportedEvent(List<CarSummary> cars) {
+}
@@ -0,0 +1,31 @@
+package luxuryride.events;
+
+import luxuryride.entities.Purchase;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a purchase has been committed or deleted.
+ * {@code before} is null for a new purchase, {@code after} is null for a
+ * deleted one.
+ */
+public record PurchaseChangedEvent(Long purchaseId, Snapshot before, Snapshot after) {
+
+    /** The aggregated fields of a purchase. */
+    public record Snapshot(Long carId, LocalDate purchaseDate, double amount) {
+
+        public static Snapshot of(Purchase p) {
+            return new Snapshot(p.getCar() != null ? p.getCar().getId() : null,
+                    p.getPurchaseDate(),
+                    p.getAmount() != null ? p.getAmount() : 0);
+        }
+    }
+
+    public static PurchaseChangedEvent created(Purchase p) {
+        return new PurchaseChangedEvent(p.getId(), null, Snapshot.of(p));
+    }
+
+    public static PurchaseChangedEvent deleted(Long purchaseId, Snapshot before) {
+        return new PurchaseChangedEvent(purchaseId, before, null);
+    }
+}
@@ -0,0 +1,38 @@
+package luxuryride.events;
+
+import luxuryride.entities.Reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a change to a reservation has been committed.
+ * {@code before} is null for a new reservation, {@code after} is null
+ * for a deleted one; consumers maintaining aggregates subtract the one
+ * and add the other.
+ */
+public record ReservationChangedEvent(Long reservationId, Snapshot before, Snapshot after) {
+
+    /** The aggregated fields of a reservation at one point in time. */
+    public record Snapshot(Long carId, LocalDate startDate, LocalDate endDate,
+                           double totalPrice, Reservation.Status status) {
+
+        public static Snapshot of(Reservation r) {
+            return new Snapshot(r.getCar() != null ? r.getCar().getId() : null,
+                    r.getStartDate(), r.getEndDate(),
+                    r.getTotalPrice() != null ? r.getTotalPrice() : 0,
+                    r.getStatus());
+        }
+    }
+
+    public static ReservationChangedEvent created(Reservation r) {
+        return new ReservationChangedEvent(r.getId(), null, Snapshot.of(r));
+    }
+
+    public static ReservationChangedEvent updated(Snapshot before, Reservation r) {
+        return new ReservationChangedEvent(r.getId(), before, Snapshot.of(r));
+    }
+
+    public static ReservationChangedEvent deleted(Long reservationId, Snapshot before) {
+        return new ReservationChangedEvent(reservationId, before, null);
+    }
+}
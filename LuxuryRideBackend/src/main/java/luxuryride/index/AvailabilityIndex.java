@@ -0,0 +1,194 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.ReservationSlot;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory, per-car index of the date ranges held by non-cancelled reservations.
+ *
+ * Each car keeps its bookings in a set sorted by start day, plus the length
+ * of its longest booking. An overlap check walks back from the last booking
+ * starting on or before the requested end day, and stops once no earlier
+ * booking can be long enough to reach the requested start day. Rentals are
+ * only accepted into free ranges, so that is usually one step (O(log n) per
+ * car), but bookings that overlap each other (rows from before the check
+ * existed) are still all seen.
+ *
+ * The timeline of a car that is offered for rent also carries its catalog
+ * summary, so "which cars are free from A to B" is answered by one pass over
+ * the timelines without touching the database.
+ *
+ * Date ranges are inclusive on both ends, matching how rentals are priced.
+ */
+@Component
+public class AvailabilityIndex {
+
+    // ordered by car id so search results come back in a stable order
+    private final Map<Long, CarTimeline> timelines = new ConcurrentSkipListMap<>();
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+
+    /** Replace the whole index with the given reservation slots. */
+    public void load(Collection<ReservationSlot> slots) {
+        load(List.of(), slots);
+    }
+
+    /** Replace the whole index with the given rentable cars and reservation slots. */
+    public void load(Collection<CarSummary> cars, Collection<ReservationSlot> slots) {
+        timelines.clear();
+        bookings.clear();
+        for (CarSummary car : cars) {
+            putCar(car);
+        }
+        for (ReservationSlot slot : slots) {
+            put(slot.reservationId(), slot.carId(), slot.startDate(), slot.endDate());
+        }
+    }
+
+    /**
+     * Record the current catalog state of a car. Cars that are not for rent
+     * keep their bookings but are left out of {@link #findFreeCars}.
+     */
+    public void putCar(CarSummary car) {
+        timeline(car.id()).car = car.forRent() ? car.withoutDescription() : null;
+    }
+
+    /** Keep the catalog side of the index in sync with every car change. */
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.isDeleted()) {
+            removeCar(event.carId());
+        } else {
+            putCar(event.car());
+        }
+    }
+
+    @EventListener
+    public void onCarsImported(CarsImportedEvent event) {
+        event.cars().forEach(this::putCar);
+    }
+
+    /**
+     * Every rentable car with no booking intersecting [start, end], in id order.
+     */
+    public List<CarSummary> findFreeCars(LocalDate start, LocalDate end) {
+        long startDay = start.toEpochDay();
+        long endDay = end.toEpochDay();
+        List<CarSummary> free = new ArrayList<>();
+        for (CarTimeline timeline : timelines.values()) {
+            CarSummary car = timeline.car;
+            if (car != null && timeline.isFree(startDay, endDay, null)) {
+                free.add(car);
+            }
+        }
+        return free;
+    }
+
+    /** True if no indexed booking of the car intersects [start, end]. */
+    public boolean isFree(Long carId, LocalDate start, LocalDate end) {
+        return isFree(carId, start, end, null);
+    }
+
+    /**
+     * True if no indexed booking of the car, other than {@code ignoredReservationId},
+     * intersects [start, end]. Used when moving an existing reservation.
+     */
+    public boolean isFree(Long carId, LocalDate start, LocalDate end, Long ignoredReservationId) {
+        CarTimeline timeline = timelines.get(carId);
+        return timeline == null
+                || timeline.isFree(start.toEpochDay(), end.toEpochDay(), ignoredReservationId);
+    }
+
+    /** Add a reservation, or move it if it is already indexed. */
+    public void put(Long reservationId, Long carId, LocalDate start, LocalDate end) {
+        Booking booking = new Booking(reservationId, carId, start.toEpochDay(), end.toEpochDay());
+        Booking previous = bookings.put(reservationId, booking);
+        if (previous != null) {
+            timeline(previous.carId()).remove(previous);
+        }
+        timeline(carId).add(booking);
+    }
+
+    /** Drop a reservation (cancelled or deleted); no-op if it isn't indexed. */
+    public void remove(Long reservationId) {
+        Booking previous = bookings.remove(reservationId);
+        if (previous != null) {
+            timeline(previous.carId()).remove(previous);
+        }
+    }
+
+    /** Drop every booking of a deleted car. */
+    public void removeCar(Long carId) {
+        CarTimeline timeline = timelines.remove(carId);
+        if (timeline != null) {
+            bookings.values().removeIf(b -> b.carId() == carId);
+        }
+    }
+
+    /** Number of indexed reservations. */
+    public int size() {
+        return bookings.size();
+    }
+
+    private CarTimeline timeline(Long carId) {
+        return timelines.computeIfAbsent(carId, id -> new CarTimeline());
+    }
+
+    record Booking(long reservationId, long carId, long startDay, long endDay) {
+    }
+
+    /**
+     * Bookings of a single car, ordered by start day (reservation id breaks ties).
+     * The monitor only guards in-memory work, so it never pins a virtual thread
+     * for longer than a TreeSet operation.
+     */
+    static final class CarTimeline {
+
+        private static final Comparator<Booking> ORDER = Comparator
+                .comparingLong(Booking::startDay)
+                .thenComparingLong(Booking::reservationId);
+
+        private final TreeSet<Booking> byStart = new TreeSet<>(ORDER);
+        // never shrinks on remove; a stale value only makes isFree look further back
+        private long longestDays;
+
+        /** Catalog summary while the car is for rent, otherwise null. */
+        volatile CarSummary car;
+
+        synchronized void add(Booking booking) {
+            byStart.add(booking);
+            longestDays = Math.max(longestDays, booking.endDay() - booking.startDay());
+        }
+
+        synchronized void remove(Booking booking) {
+            byStart.remove(booking);
+        }
+
+        synchronized boolean isFree(long startDay, long endDay, Long ignoredReservationId) {
+            // bookings starting on or before endDay, latest first; skip the one being moved
+            Booking probe = new Booking(Long.MAX_VALUE, 0, endDay, 0);
+            for (Booking candidate = byStart.floor(probe);
+                 candidate != null && candidate.startDay() + longestDays >= startDay;
+                 candidate = byStart.lower(candidate)) {
+                if (candidate.endDay() >= startDay
+                        && (ignoredReservationId == null || candidate.reservationId() != ignoredReservationId)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarFacets;
+import luxuryride.dto.CarFilter;
+import luxuryride.dto.CarSummary;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitset index over the filterable catalog attributes: the forRent, forSale
+ * and available flags, the brand and a price bucket.
+ *
+ * Each car gets a dense slot number and every facet value keeps the set of
+ * slots that have it, so any combination of filters is a handful of ANDs
+ * over a few hundred words per 10k cars, and a facet count is the
+ * cardinality of one more AND. Nothing here touches the database; writes
+ * come from {@link CarChangedEvent}s.
+ *
+ * Brands match exactly, like the catalog's brand filter. A price range
+ * takes whole buckets that lie inside it and checks the prices of the cars
+ * in the (at most two) buckets it cuts through.
+ */
+@Component
+public class CarFacetIndex {
+
+    private static final BitSet NONE = new BitSet();
+
+    // ascending upper bounds; bucket i holds prices in [bounds[i-1], bounds[i])
+    private final double[] priceBounds;
+
+    private final BitSet live = new BitSet();
+    private final BitSet forRent = new BitSet();
+    private final BitSet forSale = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Map<String, BitSet> brands = new HashMap<>();
+    private final BitSet[] priceBuckets;
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<CarSummary> cars = new ArrayList<>();
+    // by slot, so cutting a bucket scans an array instead of the summaries
+    private double[] prices = new double[64];
+    private final List<Integer> freeSlots = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CarFacetIndex(@Value("${luxuryride.facets.price-bounds:100,250,500,1000}") double[] priceBounds) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        this.priceBuckets = new BitSet[this.priceBounds.length + 1];
+        Arrays.setAll(priceBuckets, i -> new BitSet());
+    }
+
+    /** Replace the whole index with the given cars. */
+    public void load(Collection<CarSummary> summaries) {
+        lock.writeLock().lock();
+        try {
+            live.clear();
+            forRent.clear();
+            forSale.clear();
+            available.clear();
+            brands.clear();
+            for (BitSet bucket : priceBuckets) {
+                bucket.clear();
+            }
+            slotsById.clear();
+            cars.clear();
+            freeSlots.clear();
+            for (CarSummary car : summaries) {
+                delete(car.id());
+                add(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Index or re-index one car. */
+    public void put(CarSummary car) {
+        lock.writeLock().lock();
+        try {
+            delete(car.id());
+            add(car);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long carId) {
+        lock.writeLock().lock();
+        try {
+            delete(carId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.carId());
+        } else {
+            put(event.car());
+        }
+    }
+
+    /** Index a batch of imported cars under one write lock. */
+    @EventListener
+    public void onCarsImported(CarsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (CarSummary car : event.cars()) {
+                delete(car.id());
+                add(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Facet counts for the catalog narrowed by {@code filter}. */
+    public CarFacets facets(CarFilter filter) {
+        lock.readLock().lock();
+        try {
+            // one mask per filtered attribute, null when it isn't filtered
+            BitSet[] masks = {
+                    flag(forRent, filter.forRent()),
+                    flag(forSale, filter.forSale()),
+                    flag(available, filter.available()),
+                    filter.brand() == null ? null : brands.getOrDefault(filter.brand(), NONE),
+                    priceRange(filter.minPrice(), filter.maxPrice())
+            };
+
+            Map<String, Integer> brandCounts = new LinkedHashMap<>();
+            BitSet withoutBrand = matching(masks, 3);
+            brands.entrySet().stream()
+                    .map(e -> Map.entry(e.getKey(), countBoth(withoutBrand, e.getValue())))
+                    .filter(e -> e.getValue() > 0)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(e -> brandCounts.put(e.getKey(), e.getValue()));
+
+            BitSet withoutPrice = matching(masks, 4);
+            List<CarFacets.PriceBucket> prices = new ArrayList<>(priceBuckets.length);
+            for (int i = 0; i < priceBuckets.length; i++) {
+                prices.add(new CarFacets.PriceBucket(
+                        i == 0 ? null : priceBounds[i - 1],
+                        i == priceBounds.length ? null : priceBounds[i],
+                        countBoth(withoutPrice, priceBuckets[i])));
+            }
+
+            return new CarFacets(
+                    matching(masks, -1).cardinality(),
+                    countBoth(matching(masks, 0), forRent),
+                    countBoth(matching(masks, 1), forSale),
+                    countBoth(matching(masks, 2), available),
+                    brandCounts,
+                    prices);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Every indexed car that passes all masks except {@code skip}. */
+    private BitSet matching(BitSet[] masks, int skip) {
+        BitSet result = (BitSet) live.clone();
+        for (int i = 0; i < masks.length; i++) {
+            if (i != skip && masks[i] != null) {
+                result.and(masks[i]);
+            }
+        }
+        return result;
+    }
+
+    private static int countBoth(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    /** Slots whose flag equals {@code value}, or null when not filtering. */
+    private BitSet flag(BitSet set, Boolean value) {
+        if (value == null) {
+            return null;
+        }
+        if (value) {
+            return set;
+        }
+        BitSet unset = (BitSet) live.clone();
+        unset.andNot(set);
+        return unset;
+    }
+
+    /** Slots priced within [min, max], or null when not filtering. */
+    private BitSet priceRange(Double min, Double max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        double low = min == null ? Double.NEGATIVE_INFINITY : min;
+        double high = max == null ? Double.POSITIVE_INFINITY : max;
+        BitSet result = new BitSet();
+        for (int i = bucket(low); i <= bucket(high) && low <= high; i++) {
+            double bucketLow = i == 0 ? Double.NEGATIVE_INFINITY : priceBounds[i - 1];
+            double bucketHigh = i == priceBounds.length ? Double.POSITIVE_INFINITY : priceBounds[i];
+            if (low <= bucketLow && bucketHigh <= high) {
+                // [bucketLow, bucketHigh) lies wholly inside [low, high]
+                result.or(priceBuckets[i]);
+                continue;
+            }
+            BitSet bucket = priceBuckets[i];
+            for (int slot = bucket.nextSetBit(0); slot >= 0; slot = bucket.nextSetBit(slot + 1)) {
+                if (prices[slot] >= low && prices[slot] <= high) {
+                    result.set(slot);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Index of the bucket holding {@code price}: the number of bounds at or below it. */
+    private int bucket(double price) {
+        int i = 0;
+        while (i < priceBounds.length && priceBounds[i] <= price) {
+            i++;
+        }
+        return i;
+    }
+
+    private void add(CarSummary car) {
+        CarSummary summary = car.withoutDescription();
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = cars.size();
+            cars.add(summary);
+        } else {
+            slot = freeSlots.remove(freeSlots.size() - 1);
+            cars.set(slot, summary);
+        }
+        slotsById.put(car.id(), slot);
+        if (slot == prices.length) {
+            prices = Arrays.copyOf(prices, slot * 2);
+        }
+        prices[slot] = car.price();
+        live.set(slot);
+        forRent.set(slot, car.forRent());
+        forSale.set(slot, car.forSale());
+        available.set(slot, car.available());
+        if (car.brand() != null) {
+            brands.computeIfAbsent(car.brand(), b -> new BitSet()).set(slot);
+        }
+        priceBuckets[bucket(car.price())].set(slot);
+    }
+
+    private void delete(Long carId) {
+        Integer slot = slotsById.remove(carId);
+        if (slot == null) {
+            return;
+        }
+        CarSummary car = cars.get(slot);
+        live.clear(slot);
+        forRent.clear(slot);
+        forSale.clear(slot);
+        available.clear(slot);
+        if (car.brand() != null) {
+            BitSet brand = brands.get(car.brand());
+            brand.clear(slot);
+            if (brand.isEmpty()) {
+                brands.remove(car.brand());
+            }
+        }
+        priceBuckets[bucket(car.price())].clear(slot);
+        cars.set(slot, null);
+        freeSlots.add(slot);
+    }
+}
@@ -0,0 +1,334 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over car brand, model and description.
+ *
+ * Text is lower-cased, stripped of accents and split on anything that is
+ * not a letter or a digit. Terms are kept in a sorted map so a query word
+ * also matches every term it is a prefix of ("conv" finds "convertible").
+ *
+ * Ranking is tf-idf with field weights (brand over model over description),
+ * and an exact term counting more than a prefix match. Cars matching more
+ * of the query words always rank above cars matching fewer, so
+ * "convertible red porsche" puts red Porsche convertibles first but still
+ * returns other Porsches.
+ *
+ * Each car gets a dense slot number; a term's postings are parallel arrays
+ * of slots and precomputed field scores, and a query accumulates into
+ * arrays indexed by slot, then keeps the best {@code limit} with a small
+ * heap. Reads share a lock and never touch the database; writes come from
+ * {@link CarChangedEvent}s.
+ */
+@Component
+public class CarSearchIndex {
+
+    static final int MAX_PREFIX_EXPANSION = 64;
+
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "with", "of", "in", "for");
+
+    /** Fields in weight order; the ordinal indexes per-field term counts. */
+    enum Field {
+        BRAND(3.0), MODEL(2.0), DESCRIPTION(1.0);
+
+        final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final List<Integer> freeSlots = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Replace the whole index with the given cars (descriptions included). */
+    public void load(Collection<CarSummary> cars) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slotsById.clear();
+            documents.clear();
+            freeSlots.clear();
+            for (CarSummary car : cars) {
+                delete(car.id());
+                add(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Index or re-index one car. */
+    public void put(CarSummary car) {
+        lock.writeLock().lock();
+        try {
+            delete(car.id());
+            add(car);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long carId) {
+        lock.writeLock().lock();
+        try {
+            delete(carId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.carId());
+        } else {
+            put(event.car());
+        }
+    }
+
+    /** Index a batch of imported cars under one write lock. */
+    @EventListener
+    public void onCarsImported(CarsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (CarSummary car : event.cars()) {
+                delete(car.id());
+                add(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} cars matching any word of {@code query}, best
+     * first (without descriptions). An empty query matches nothing.
+     */
+    public List<CarSummary> search(String query, int limit) {
+        // at most 32 words, so the words a car matched fit in an int mask
+        List<String> words = tokenize(query).stream().distinct().limit(Integer.SIZE).toList();
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int slots = documents.size();
+            double docs = slotsById.size();
+            double[] scores = new double[slots];
+            int[] matched = new int[slots];
+            int[] touched = new int[slots];
+            int hits = 0;
+            for (int w = 0; w < words.size(); w++) {
+                String word = words.get(w);
+                Postings exact = postings.get(word);
+                double exactIdf = exact != null ? idf(docs, exact) : Double.MAX_VALUE;
+                int expanded = 0;
+                for (Map.Entry<String, Postings> term : postings.tailMap(word, true).entrySet()) {
+                    if (!term.getKey().startsWith(word) || expanded++ == MAX_PREFIX_EXPANSION) {
+                        break;
+                    }
+                    Postings list = term.getValue();
+                    double weight = idf(docs, list);
+                    if (term.getKey().length() > word.length()) {
+                        // a rare longer term must not outrank the word itself
+                        weight = Math.min(weight, exactIdf) * PREFIX_WEIGHT;
+                    }
+                    int bit = 1 << w;
+                    for (int i = 0; i < list.size; i++) {
+                        int slot = list.slots[i];
+                        if (matched[slot] == 0) {
+                            touched[hits++] = slot;
+                        }
+                        matched[slot] |= bit;
+                        scores[slot] += weight * list.fieldScores[i];
+                    }
+                }
+            }
+            return top(scores, matched, touched, hits, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lower-cased, accent-free words of {@code text}, stop words removed. */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static double idf(double docs, Postings list) {
+        return Math.log(1 + docs / list.size);
+    }
+
+    /**
+     * The best {@code limit} of the touched slots: more matched words first,
+     * then higher score, then lower car id.
+     */
+    private List<CarSummary> top(double[] scores, int[] matched, int[] touched, int hits, int limit) {
+        // reversed ranking, so the worst of the current best is at the head
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, hits) + 1,
+                (a, b) -> compare(b, a, scores, matched));
+        for (int i = 0; i < hits; i++) {
+            int slot = touched[i];
+            if (best.size() < limit) {
+                best.add(slot);
+            } else if (compare(slot, best.peek(), scores, matched) < 0) {
+                best.poll();
+                best.add(slot);
+            }
+        }
+        CarSummary[] result = new CarSummary[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = documents.get(best.poll()).car;
+        }
+        return Arrays.asList(result);
+    }
+
+    /** Negative when slot {@code a} ranks before slot {@code b}. */
+    private int compare(int a, int b, double[] scores, int[] matched) {
+        int byWords = Integer.compare(Integer.bitCount(matched[b]), Integer.bitCount(matched[a]));
+        if (byWords != 0) {
+            return byWords;
+        }
+        int byScore = Double.compare(scores[b], scores[a]);
+        if (byScore != 0) {
+            return byScore;
+        }
+        return Long.compare(documents.get(a).car.id(), documents.get(b).car.id());
+    }
+
+    private void add(CarSummary car) {
+        Map<String, int[]> terms = new HashMap<>();
+        count(terms, car.brand(), Field.BRAND);
+        count(terms, car.model(), Field.MODEL);
+        count(terms, car.description(), Field.DESCRIPTION);
+
+        Document document = new Document(car.withoutDescription(), terms.keySet().toArray(String[]::new));
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = documents.size();
+            documents.add(document);
+        } else {
+            slot = freeSlots.remove(freeSlots.size() - 1);
+            documents.set(slot, document);
+        }
+        slotsById.put(car.id(), slot);
+        for (Map.Entry<String, int[]> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(slot, fieldScore(term.getValue()));
+        }
+    }
+
+    private void delete(Long carId) {
+        Integer slot = slotsById.remove(carId);
+        if (slot == null) {
+            return;
+        }
+        for (String term : documents.get(slot).terms) {
+            Postings list = postings.get(term);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        documents.set(slot, null);
+        freeSlots.add(slot);
+    }
+
+    private static void count(Map<String, int[]> terms, String text, Field field) {
+        for (String word : tokenize(text)) {
+            terms.computeIfAbsent(word, w -> new int[FIELDS.length])[field.ordinal()]++;
+        }
+    }
+
+    /** Weighted, saturating term frequency over the fields a term occurs in. */
+    private static double fieldScore(int[] counts) {
+        double score = 0;
+        for (Field field : FIELDS) {
+            int tf = counts[field.ordinal()];
+            if (tf > 0) {
+                score += field.weight * tf / (tf + 1.0);
+            }
+        }
+        return score;
+    }
+
+    private record Document(CarSummary car, String[] terms) {
+    }
+
+    /** Cars containing one term: their slots and the term's field score in each. */
+    private static final class Postings {
+
+        int[] slots = new int[2];
+        double[] fieldScores = new double[2];
+        int size;
+
+        void add(int slot, double fieldScore) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                fieldScores = Arrays.copyOf(fieldScores, size * 2);
+            }
+            slots[size] = slot;
+            fieldScores[size] = fieldScore;
+            size++;
+        }
+
+        /** Order isn't significant, so the last entry fills the hole. */
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    fieldScores[i] = fieldScores[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarOccupancy;
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.FleetOccupancy;
+import luxuryride.dto.ReservationSlot;
+import luxuryride.entities.Reservation;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import luxuryride.events.ReservationChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Day-granularity occupancy bitmap per car, for the rentals calendar.
+ *
+ * A car's bitmap starts at the 64-day boundary on or before its earliest
+ * booking, so a car booked through one year costs about six longs. Bitmaps
+ * are redrawn from the car's own bookings whenever one of them changes,
+ * which keeps the bits right even if two bookings overlap.
+ *
+ * Non-cancelled reservations hold their days, both ends inclusive, like
+ * the {@link AvailabilityIndex}. Changes arrive as {@link CarChangedEvent}s
+ * and {@link ReservationChangedEvent}s; nothing here touches the database.
+ *
+ * Bookings that ended more than {@code retention-days} ago are dropped, on
+ * load and whenever their car is redrawn, so neither the redraw cost nor a
+ * car's bitmap keeps growing with its history; the calendar shows nothing
+ * before that horizon. Slots without dates or ending before they start
+ * (legacy rows) hold no days and are skipped.
+ */
+@Component
+public class OccupancyStore {
+
+    private static final Base64.Encoder BASE64 = Base64.getEncoder();
+
+    // ordered by car id so the calendar rows come back in a stable order
+    private final Map<Long, CarDays> cars = new TreeMap<>();
+    private final Map<Long, Booking> bookings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Clock clock;
+    private final int retentionDays;
+
+    @Autowired
+    public OccupancyStore(@Value("${luxuryride.occupancy.retention-days:366}") int retentionDays) {
+        this(Clock.systemDefaultZone(), retentionDays);
+    }
+
+    OccupancyStore(Clock clock, int retentionDays) {
+        this.clock = clock;
+        this.retentionDays = Math.max(0, retentionDays);
+    }
+
+    /** Replace the whole store with the given rentable cars and reservation slots. */
+    public void load(Collection<CarSummary> rentable, Collection<ReservationSlot> slots) {
+        lock.writeLock().lock();
+        try {
+            cars.clear();
+            bookings.clear();
+            for (CarSummary car : rentable) {
+                days(car.id()).car = car.withoutDescription();
+            }
+            long horizon = horizon();
+            Map<Long, List<Booking>> byCar = new HashMap<>();
+            for (ReservationSlot slot : slots) {
+                if (!holdsDays(slot.startDate(), slot.endDate())
+                        || slot.endDate().toEpochDay() < horizon) {
+                    continue;
+                }
+                Booking booking = new Booking(slot.reservationId(), slot.carId(),
+                        slot.startDate().toEpochDay(), slot.endDate().toEpochDay());
+                bookings.put(booking.reservationId(), booking);
+                byCar.computeIfAbsent(booking.carId(), id -> new ArrayList<>()).add(booking);
+            }
+            // one redraw per car rather than one per booking
+            byCar.forEach((carId, list) -> {
+                CarDays days = days(carId);
+                days.bookings.addAll(list);
+                days.redraw();
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a reservation's days, or move them if it is already stored. A
+     * period without days, or past the retention horizon, just releases
+     * whatever the reservation held.
+     */
+    public void put(Long reservationId, Long carId, LocalDate start, LocalDate end) {
+        lock.writeLock().lock();
+        try {
+            detach(reservationId);
+            long horizon = horizon();
+            if (!holdsDays(start, end) || end.toEpochDay() < horizon) {
+                return;
+            }
+            Booking booking = new Booking(reservationId, carId, start.toEpochDay(), end.toEpochDay());
+            bookings.put(reservationId, booking);
+            CarDays days = days(carId);
+            days.bookings.add(booking);
+            // the car is redrawn anyway: drop its bookings that have aged out
+            days.bookings.removeIf(b -> {
+                if (b.endDay() < horizon) {
+                    bookings.remove(b.reservationId());
+                    return true;
+                }
+                return false;
+            });
+            days.redraw();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Release a reservation's days; no-op if it isn't stored. */
+    public void remove(Long reservationId) {
+        lock.writeLock().lock();
+        try {
+            detach(reservationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                CarDays removed = cars.remove(event.carId());
+                if (removed != null) {
+                    removed.bookings.forEach(b -> bookings.remove(b.reservationId()));
+                }
+            } else {
+                days(event.carId()).car = event.car().withoutDescription();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCarsImported(CarsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (CarSummary car : event.cars()) {
+                days(car.id()).car = car.withoutDescription();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationChangedEvent.Snapshot after = event.after();
+        if (after != null && after.status() != Reservation.Status.CANCELLED && after.carId() != null) {
+            put(event.reservationId(), after.carId(), after.startDate(), after.endDate());
+        } else {
+            remove(event.reservationId());
+        }
+    }
+
+    /**
+     * The calendar over [from, to]: every car offered for rent plus any
+     * other car with a booked day in the range.
+     */
+    public FleetOccupancy occupancy(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        int span = (int) (toDay - fromDay + 1);
+        lock.readLock().lock();
+        try {
+            List<CarOccupancy> rows = new ArrayList<>();
+            long booked = 0;
+            for (Map.Entry<Long, CarDays> entry : cars.entrySet()) {
+                CarDays days = entry.getValue();
+                BitSet window = days.window(fromDay, toDay);
+                int carBooked = window.cardinality();
+                if (carBooked == 0 && (days.car == null || !days.car.forRent())) {
+                    continue;
+                }
+                booked += carBooked;
+                rows.add(new CarOccupancy(entry.getKey(),
+                        days.car != null ? days.car.brand() : null,
+                        days.car != null ? days.car.model() : null,
+                        carBooked,
+                        percent(carBooked, span),
+                        BASE64.encodeToString(Arrays.copyOf(window.toByteArray(), (span + 7) / 8))));
+            }
+            return new FleetOccupancy(from, to, span, booked, percent(booked, (long) span * rows.size()), rows);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of stored reservations. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bookings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Percentage with one decimal; 0 for an empty denominator. */
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : Math.round(part * 1000.0 / whole) / 10.0;
+    }
+
+    private static boolean holdsDays(LocalDate start, LocalDate end) {
+        return start != null && end != null && !end.isBefore(start);
+    }
+
+    /** Epoch day before which a booking must have ended to be dropped. */
+    private long horizon() {
+        return LocalDate.now(clock).toEpochDay() - retentionDays;
+    }
+
+    private CarDays days(Long carId) {
+        return cars.computeIfAbsent(carId, id -> new CarDays());
+    }
+
+    private void detach(Long reservationId) {
+        Booking previous = bookings.remove(reservationId);
+        if (previous != null) {
+            CarDays days = cars.get(previous.carId());
+            if (days != null) {
+                days.bookings.remove(previous);
+                days.redraw();
+            }
+        }
+    }
+
+    record Booking(long reservationId, long carId, long startDay, long endDay) {
+    }
+
+    /** One car: its catalog summary (null until known), its bookings and their bitmap. */
+    private static final class CarDays {
+
+        CarSummary car;
+        final List<Booking> bookings = new ArrayList<>();
+        BitSet bits = new BitSet();
+        // epoch day of bit 0
+        long origin;
+
+        void redraw() {
+            bits = new BitSet();
+            origin = bookings.stream()
+                    .mapToLong(b -> Math.floorDiv(b.startDay(), Long.SIZE) * Long.SIZE)
+                    .min()
+                    .orElse(0);
+            for (Booking b : bookings) {
+                bits.set((int) (b.startDay() - origin), (int) (b.endDay() - origin + 1));
+            }
+        }
+
+        /** Bits of [fromDay, toDay], bit 0 being fromDay. */
+        BitSet window(long fromDay, long toDay) {
+            if (bits.isEmpty() || toDay < origin) {
+                return new BitSet();
+            }
+            if (fromDay >= origin) {
+                return bits.get((int) Math.min(fromDay - origin, Integer.MAX_VALUE),
+                        (int) Math.min(toDay - origin + 1, Integer.MAX_VALUE));
+            }
+            // the range starts before the bitmap does: shift the bits up
+            BitSet window = new BitSet();
+            int shift = (int) (origin - fromDay);
+            int last = (int) Math.min(toDay - origin, Integer.MAX_VALUE - 1);
+            for (int i = bits.nextSetBit(0); i >= 0 && i <= last; i = bits.nextSetBit(i + 1)) {
+                window.set(i + shift);
+            }
+            return window;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package luxuryride.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import luxuryride.index.AvailabilityIndex;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics beyond what the actuator binds on its own (HTTP
+ * server requests, Hikari pool, Tomcat, JVM, and hit/miss for the Caffeine
+ * caches declared in CacheConfig).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        QueryCounter counter = new QueryCounter();
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Bean
+    public MeterBinder availabilityIndexMetrics(AvailabilityIndex availability) {
+        return registry -> Gauge.builder("luxuryride.availability.bookings", availability, AvailabilityIndex::size)
+                .description("Active reservations held in the availability index")
+                .register(registry);
+    }
+}
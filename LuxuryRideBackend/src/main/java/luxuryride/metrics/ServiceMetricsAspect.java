@@ -0,0 +1,91 @@
+package luxuryride.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import luxuryride.service.OperationRejectedException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the {@code @Service} beans as {@code luxuryride.service{class,method,outcome}},
+ * with a percentile histogram. The outcome is {@code success},
+ * {@code not_found} for an empty Optional, the rejection reason
+ * ({@code car_not_found}, {@code not_available}, {@code not_for_sale}, ...),
+ * {@code conflict} for a lost optimistic lock, {@code invalid} for other
+ * IllegalArgumentExceptions and {@code error} otherwise.
+ *
+ * Runs outside the cache and transaction advice, so cache hits are timed
+ * and commit time is included.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    public static final String METRIC = "luxuryride.service";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)"
+            + " && execution(public * luxuryride..*(..))"
+            + " && !@annotation(org.springframework.context.event.EventListener)")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object result = call.proceed();
+            outcome = result instanceof Optional<?> optional && optional.isEmpty() ? "not_found" : "success";
+            return result;
+        } catch (Throwable ex) {
+            outcome = outcome(ex);
+            throw ex;
+        } finally {
+            timer(call.getSignature().getDeclaringType(), call.getSignature().getName(), outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static String outcome(Throwable ex) {
+        if (ex instanceof OperationRejectedException rejected) {
+            return rejected.getReason().name().toLowerCase(Locale.ROOT);
+        }
+        if (ex instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (ex instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        return "error";
+    }
+
+    private Timer timer(Class<?> type, String method, String outcome) {
+        // the registry would dedupe too, but only after building the tags on every call
+        return timers.computeIfAbsent(new TimerKey(type, method, outcome), key -> Timer.builder(METRIC)
+                .description("Service call latency by outcome")
+                .tag("class", type.getSimpleName())
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private record TimerKey(Class<?> type, String method, String outcome) {
+    }
+}
@@ -0,0 +1,167 @@
+package luxuryride.pricing;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.Quote;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import luxuryride.service.OperationRejectedException;
+import luxuryride.service.OperationRejectedException.Reason;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rental prices from the configured {@link PricingRules}. A quote is the
+ * car's daily rental rate (its {@code rentalPricePerDay}, else its sale
+ * price) times its brand multiplier, times the sum of the day factors of
+ * the period from the precompiled {@link RateTable}, less the
+ * length-of-rental discount, rounded to cents. Its cost doesn't depend on
+ * the length of the rental inside the table; rentals longer than
+ * {@code max-days} are rejected, as are quotes for them.
+ *
+ * Quotes by car id are answered from the rates of every car, loaded with
+ * the other car indexes and kept current by {@link CarChangedEvent}s, and
+ * memoized in the bounded {@code quotes} cache. A memoized quote is only
+ * used while the car's rate is the one it was computed from, so a price
+ * change needs no eviction.
+ */
+@Component
+public class PricingEngine {
+
+    /** Memoized quotes by car and period. */
+    public static final String CACHE = "quotes";
+
+    private final PricingRules rules;
+    private final RateTable table;
+    private final int maxDays;
+    private final Cache quotes;
+    private final Map<Long, Rate> rates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PricingEngine(CacheManager cacheManager,
+                         @Value("${luxuryride.pricing.day-multipliers:}") String dayMultipliers,
+                         @Value("${luxuryride.pricing.seasons:}") String seasons,
+                         @Value("${luxuryride.pricing.brand-multipliers:}") String brandMultipliers,
+                         @Value("${luxuryride.pricing.length-discounts:}") String lengthDiscounts,
+                         @Value("${luxuryride.pricing.table-days:1461}") int tableDays,
+                         @Value("${luxuryride.pricing.max-days:731}") int maxDays) {
+        this(cacheManager, PricingRules.parse(dayMultipliers, seasons, brandMultipliers, lengthDiscounts),
+                // a year back for quotes on running rentals, the rest ahead
+                LocalDate.now().minusYears(1), tableDays, maxDays);
+    }
+
+    PricingEngine(CacheManager cacheManager, PricingRules rules, LocalDate tableStart, int tableDays,
+                  int maxDays) {
+        this.rules = rules;
+        this.table = new RateTable(rules, tableStart, Math.max(0, tableDays));
+        this.maxDays = Math.max(1, maxDays);
+        this.quotes = cacheManager.getCache(CACHE);
+    }
+
+    /** What the pricing of one car depends on: brand-adjusted daily rate, and whether it is rented at all. */
+    private record Rate(double dailyRate, boolean forRent) {
+    }
+
+    private record Key(long carId, long startDay, long endDay) {
+    }
+
+    private record Memo(Rate rate, Quote quote) {
+    }
+
+    /** Replace the known rates with those of {@code cars}. */
+    public void load(List<CarSummary> cars) {
+        rates.clear();
+        cars.forEach(car -> rates.put(car.id(), rate(car)));
+    }
+
+    /** Keep the rates current; quotes memoized from an old rate are then ignored. */
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.isDeleted()) {
+            rates.remove(event.carId());
+        } else {
+            rates.put(event.carId(), rate(event.car()));
+        }
+    }
+
+    @EventListener
+    public void onCarsImported(CarsImportedEvent event) {
+        event.cars().forEach(car -> rates.put(car.id(), rate(car)));
+    }
+
+    /** Number of cars with a known rate. */
+    public int size() {
+        return rates.size();
+    }
+
+    /**
+     * Quote for renting car {@code carId} over [start, end], memoized; empty
+     * if there is no such car.
+     * @throws OperationRejectedException for a bad period or a car not for rent
+     */
+    public Optional<Quote> quote(Long carId, LocalDate start, LocalDate end) {
+        checkPeriod(start, end);
+        Rate rate = rates.get(carId);
+        if (rate == null) {
+            return Optional.empty();
+        }
+        if (!rate.forRent()) {
+            throw new OperationRejectedException(Reason.NOT_FOR_RENT, "Car is not for rent");
+        }
+        Key key = new Key(carId, start.toEpochDay(), end.toEpochDay());
+        Memo memo = quotes.get(key, Memo.class);
+        if (memo != null && memo.rate().equals(rate)) {
+            return Optional.of(memo.quote());
+        }
+        Quote quote = quote(carId, rate.dailyRate(), start, end);
+        quotes.put(key, new Memo(rate, quote));
+        return Optional.of(quote);
+    }
+
+    /** Quote for renting {@code car} over [start, end], computed from the given state of the car. */
+    public Quote quote(CarSummary car, LocalDate start, LocalDate end) {
+        checkPeriod(start, end);
+        return quote(car.id(), rate(car).dailyRate(), start, end);
+    }
+
+    private Quote quote(Long carId, double dailyRate, LocalDate start, LocalDate end) {
+        long days = days(start, end);
+        double subtotal = money(dailyRate * table.factorSum(start, end));
+        double discount = money(subtotal * rules.discount(days));
+        return new Quote(carId, start, end, days, money(dailyRate), subtotal, discount,
+                money(subtotal - discount));
+    }
+
+    private Rate rate(CarSummary car) {
+        return new Rate(car.dailyRentalRate() * rules.brandFactor(car.brand()), car.forRent());
+    }
+
+    /** Days charged for [start, end]: every started day, both ends included. */
+    public static long days(LocalDate start, LocalDate end) {
+        return end.toEpochDay() - start.toEpochDay() + 1;
+    }
+
+    /**
+     * Reject a period that can't be rented: missing or reversed dates, or
+     * longer than {@code max-days}.
+     * @throws OperationRejectedException with {@link Reason#INVALID_PERIOD}
+     */
+    public void checkPeriod(LocalDate start, LocalDate end) {
+        if (start == null || end == null || end.isBefore(start) || days(start, end) > maxDays) {
+            throw new OperationRejectedException(Reason.INVALID_PERIOD, "Invalid rental period");
+        }
+    }
+
+    private static double money(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
@@ -0,0 +1,129 @@
+package luxuryride.pricing;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The configured rental pricing rules, all multiplicative on a car's daily
+ * rate:
+ * <ul>
+ *   <li>{@code dayMultipliers}: by day of week ({@code SATURDAY:1.2,SUNDAY:1.2})</li>
+ *   <li>{@code seasons}: inclusive month-day ranges, which may wrap the year
+ *       end ({@code 06-15/09-15:1.3,12-20/01-05:1.5}); overlapping seasons multiply</li>
+ *   <li>{@code brandMultipliers}: by brand, case-insensitive ({@code Ferrari:1.1})</li>
+ *   <li>{@code lengthDiscounts}: share taken off a rental of at least that many
+ *       days, the longest qualifying one applies ({@code 7:0.10,28:0.25})</li>
+ * </ul>
+ * Empty specs mean no rule: every day at the car's rate.
+ */
+public record PricingRules(Map<DayOfWeek, Double> dayMultipliers,
+                           List<Season> seasons,
+                           Map<String, Double> brandMultipliers,
+                           NavigableMap<Integer, Double> lengthDiscounts) {
+
+    public static final PricingRules NONE = parse("", "", "", "");
+
+    /** A month-day range with its multiplier; {@code from} after {@code to} wraps the year end. */
+    public record Season(MonthDay from, MonthDay to, double multiplier) {
+
+        boolean contains(MonthDay day) {
+            return from.isAfter(to)
+                    ? !day.isBefore(from) || !day.isAfter(to)
+                    : !day.isBefore(from) && !day.isAfter(to);
+        }
+    }
+
+    public static PricingRules parse(String dayMultipliers, String seasons, String brandMultipliers,
+                                     String lengthDiscounts) {
+        Map<DayOfWeek, Double> days = new EnumMap<>(DayOfWeek.class);
+        pairs(dayMultipliers).forEach((day, value) ->
+                days.put(DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT)), multiplier(day, value)));
+
+        List<Season> seasonList = new ArrayList<>();
+        pairs(seasons).forEach((range, value) -> {
+            int slash = range.indexOf('/');
+            if (slash <= 0) {
+                throw new IllegalArgumentException("expected MM-dd/MM-dd, got: " + range);
+            }
+            seasonList.add(new Season(monthDay(range.substring(0, slash)), monthDay(range.substring(slash + 1)),
+                    multiplier(range, value)));
+        });
+
+        Map<String, Double> brands = new HashMap<>();
+        pairs(brandMultipliers).forEach((brand, value) ->
+                brands.put(brand.toLowerCase(Locale.ROOT), multiplier(brand, value)));
+
+        NavigableMap<Integer, Double> discounts = new TreeMap<>();
+        pairs(lengthDiscounts).forEach((minDays, value) -> {
+            double share = Double.parseDouble(value);
+            if (!(share >= 0 && share < 1)) {
+                throw new IllegalArgumentException("discount for " + minDays + " days must be in [0, 1): " + value);
+            }
+            discounts.put(Integer.parseInt(minDays), share);
+        });
+        return new PricingRules(days, List.copyOf(seasonList), Map.copyOf(brands), discounts);
+    }
+
+    /** Product of the day-of-week and season multipliers of one date. */
+    public double dayFactor(LocalDate date) {
+        double factor = dayMultipliers.getOrDefault(date.getDayOfWeek(), 1.0);
+        if (!seasons.isEmpty()) {
+            MonthDay day = MonthDay.from(date);
+            for (Season season : seasons) {
+                if (season.contains(day)) {
+                    factor *= season.multiplier();
+                }
+            }
+        }
+        return factor;
+    }
+
+    public double brandFactor(String brand) {
+        return brand == null || brandMultipliers.isEmpty() ? 1.0
+                : brandMultipliers.getOrDefault(brand.toLowerCase(Locale.ROOT), 1.0);
+    }
+
+    /** Share of the subtotal taken off a rental of {@code days} days. */
+    public double discount(long days) {
+        Map.Entry<Integer, Double> tier = lengthDiscounts.floorEntry((int) Math.min(days, Integer.MAX_VALUE));
+        return tier == null ? 0 : tier.getValue();
+    }
+
+    private static double multiplier(String key, String value) {
+        double multiplier = Double.parseDouble(value);
+        if (!(multiplier > 0) || Double.isInfinite(multiplier)) {
+            throw new IllegalArgumentException("multiplier for " + key + " must be positive: " + value);
+        }
+        return multiplier;
+    }
+
+    private static MonthDay monthDay(String value) {
+        return MonthDay.parse("--" + value.trim());
+    }
+
+    /** {@code a:1,b:2} into an ordered map. */
+    private static Map<String, String> pairs(String spec) {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String pair : spec.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int colon = pair.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("expected key:value, got: " + pair);
+            }
+            pairs.put(pair.substring(0, colon).trim(), pair.substring(colon + 1).trim());
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,43 @@
+package luxuryride.pricing;
+
+import java.time.LocalDate;
+
+/**
+ * The per-day part of the rules compiled once for a window of dates: the
+ * factor of every day (day of week times seasons) kept as prefix sums, so
+ * the factors of any period inside the window add up with two array reads
+ * however long the period is. Days outside the window are evaluated one
+ * by one from the rules, which gives the same result, only slower.
+ */
+final class RateTable {
+
+    private final PricingRules rules;
+    private final long firstDay;
+    // sums[i] = factors of the days firstDay .. firstDay + i - 1
+    private final double[] sums;
+
+    RateTable(PricingRules rules, LocalDate from, int days) {
+        this.rules = rules;
+        this.firstDay = from.toEpochDay();
+        this.sums = new double[days + 1];
+        LocalDate day = from;
+        for (int i = 0; i < days; i++) {
+            sums[i + 1] = sums[i] + rules.dayFactor(day);
+            day = day.plusDays(1);
+        }
+    }
+
+    /** Sum of the day factors over [start, end], both inclusive. */
+    double factorSum(LocalDate start, LocalDate end) {
+        long from = start.toEpochDay() - firstDay;
+        long to = end.toEpochDay() - firstDay + 1;
+        if (from >= 0 && to < sums.length) {
+            return sums[(int) to] - sums[(int) from];
+        }
+        double sum = 0;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            sum += rules.dayFactor(day);
+        }
+        return sum;
+    }
+}
@@ -1,8 +1,76 @@
 package luxuryride.repository;
 
+import jakarta.persistence.LockModeType;
+import luxuryride.dto.CarStatus;
+import luxuryride.dto.CarSummary;
 import luxuryride.entities.Car;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CarRepository extends JpaRepository<Car, Long> {
-}
 
+    /** Keyset predicate + optional filters shared by the catalog page queries. */
+    String PAGE_FILTER = """
+             where c.id > :afterId
+               and (:forRent is null or c.forRent = :forRent)
+               and (:forSale is null or c.forSale = :forSale)
+               and (:available is null or c.available = :available)
+               and (:minPrice is null or c.price >= :minPrice)
+               and (:maxPrice is null or c.price <= :maxPrice)
+               and (:brand is null or c.brand = :brand)
+             order by c.id
+            """;
+
+    /** Catalog page without the TEXT description column. */
+    @Query("select new luxuryride.dto.CarSummary(c.id, c.brand, c.model, c.plates, c.price,"
+            + " c.available, c.forRent, c.forSale, c.rentalPricePerDay) from Car c" + PAGE_FILTER)
+    List<CarSummary> findSummaryPage(@Param("afterId") long afterId,
+                                     @Param("forRent") Boolean forRent,
+                                     @Param("forSale") Boolean forSale,
+                                     @Param("available") Boolean available,
+                                     @Param("minPrice") Double minPrice,
+                                     @Param("maxPrice") Double maxPrice,
+                                     @Param("brand") String brand,
+                                     Limit limit);
+
+    /**
+     * Load a car for a checkout that doesn't modify the car row itself (rentals):
+     * its version is still bumped at commit, so concurrent checkouts of the
+     * same car from other instances fail with an optimistic-lock conflict.
+     * Must run inside a transaction.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select c from Car c where c.id = :id")
+    Optional<Car> findForCheckout(@Param("id") Long id);
+
+    /** Summaries of every car currently offered for rent. */
+    @Query("select new luxuryride.dto.CarSummary(c.id, c.brand, c.model, c.plates, c.price,"
+            + " c.available, c.forRent, c.forSale, c.rentalPricePerDay) from Car c where c.forRent = true")
+    List<CarSummary> findRentableSummaries();
+
+    /** Catalog page including the description, for clients that asked for it. */
+    @Query("select c from Car c" + PAGE_FILTER)
+    List<Car> findPage(@Param("afterId") long afterId,
+                       @Param("forRent") Boolean forRent,
+                       @Param("forSale") Boolean forSale,
+                       @Param("available") Boolean available,
+                       @Param("minPrice") Double minPrice,
+                       @Param("maxPrice") Double maxPrice,
+                       @Param("brand") String brand,
+                       Limit limit);
+
+    /** Every car with its description, for building the search index. */
+    @Query("select new luxuryride.dto.CarSummary(c.id, c.brand, c.model, c.plates, c.price,"
+            + " c.available, c.forRent, c.forSale, c.description, c.rentalPricePerDay) from Car c")
+    List<CarSummary> findSearchableSummaries();
+
+    /** Flags of every car, for rebuilding the fleet counts. */
+    @Query("select new luxuryride.dto.CarStatus(c.id, c.available, c.forRent, c.forSale) from Car c")
+    List<CarStatus> findStatuses();
+}
@@ -1,10 +1,81 @@
 package luxuryride.repository;
 
+import jakarta.persistence.QueryHint;
+import luxuryride.dto.DailyTotal;
+import luxuryride.dto.PurchaseView;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import luxuryride.entities.Purchase;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
-}
 
+    /** Single purchase with its car fetched in the same query. */
+    @Override
+    @EntityGraph(attributePaths = "car")
+    Optional<Purchase> findById(Long id);
+
+    /** Delete one purchase; returns 1 if this call removed it, 0 if it was already gone. */
+    @Transactional
+    @Modifying
+    @Query("delete from Purchase p where p.id = :id")
+    int deleteOne(@Param("id") Long id);
+
+    /** Every purchase as a flat row, in one query. */
+    @Query("select new luxuryride.dto.PurchaseView(p.id, c.id, c.brand, c.model, c.plates,"
+            + " p.customerName, p.customerEmail, p.purchaseDate, p.amount, p.paymentMethod)"
+            + " from Purchase p join p.car c order by p.id")
+    List<PurchaseView> findAllViews();
+
+    /**
+     * Forward-only cursor over purchases in a date range (either bound may be
+     * null), for exports. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new luxuryride.dto.PurchaseView(p.id, c.id, c.brand, c.model, c.plates,"
+            + " p.customerName, p.customerEmail, p.purchaseDate, p.amount, p.paymentMethod)"
+            + " from Purchase p join p.car c"
+            + " where (:from is null or p.purchaseDate >= :from)"
+            + "   and (:to is null or p.purchaseDate <= :to)"
+            + " order by p.id")
+    Stream<PurchaseView> streamViews(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * One page of a customer's purchases, newest first,
+     * strictly after the (date, id) keyset position. Purchases without a
+     * date (legacy rows) sort after every dated one; a null {@code date}
+     * is a position among them.
+     */
+    @Query("select new luxuryride.dto.PurchaseView(p.id, c.id, c.brand, c.model, c.plates,"
+            + " p.customerName, p.customerEmail, p.purchaseDate, p.amount, p.paymentMethod)"
+            + " from Purchase p join p.car c"
+            + " where p.customerEmail = :email"
+            + "   and (p.purchaseDate < :date or (p.purchaseDate = :date and p.id < :id)"
+            + "        or (p.purchaseDate is null and (:date is not null or p.id < :id)))"
+            + " order by p.purchaseDate desc nulls last, p.id desc")
+    List<PurchaseView> findHistoryPage(@Param("email") String email,
+                                       @Param("date") LocalDate date,
+                                       @Param("id") long id,
+                                       Limit limit);
+
+    /** Purchase count and amount per day, for rebuilding the stats rollups. */
+    @Query("select new luxuryride.dto.DailyTotal(p.purchaseDate, count(p), sum(p.amount))"
+            + " from Purchase p group by p.purchaseDate")
+    List<DailyTotal> findDailyTotals();
+}
@@ -1,12 +1,109 @@
 package luxuryride.repository;
 
+import jakarta.persistence.QueryHint;
+import luxuryride.dto.DailyTotal;
+import luxuryride.dto.PendingHold;
+import luxuryride.dto.ReservationSlot;
+import luxuryride.dto.ReservationView;
 import luxuryride.entities.Reservation;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    /** Single reservation with its car fetched in the same query. */
+    @Override
+    @EntityGraph(attributePaths = "car")
+    Optional<Reservation> findById(Long id);
+
+    @EntityGraph(attributePaths = "car")
     List<Reservation> findByCustomerEmail(String email);
+
+    /** Every reservation as a flat row, in one query. */
+    @Query("select new luxuryride.dto.ReservationView(r.id, c.id, c.brand, c.model, c.plates,"
+            + " r.customerName, r.customerEmail, r.startDate, r.endDate, r.totalPrice, r.status)"
+            + " from Reservation r join r.car c order by r.id")
+    List<ReservationView> findAllViews();
+
+    /**
+     * Forward-only cursor over reservations starting in a date range (either
+     * bound may be null), for exports. Must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new luxuryride.dto.ReservationView(r.id, c.id, c.brand, c.model, c.plates,"
+            + " r.customerName, r.customerEmail, r.startDate, r.endDate, r.totalPrice, r.status)"
+            + " from Reservation r join r.car c"
+            + " where (:from is null or r.startDate >= :from)"
+            + "   and (:to is null or r.startDate <= :to)"
+            + " order by r.id")
+    Stream<ReservationView> streamViews(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * One page of a customer's reservations, newest start date first,
+     * strictly after the (date, id) keyset position.
+     */
+    @Query("select new luxuryride.dto.ReservationView(r.id, c.id, c.brand, c.model, c.plates,"
+            + " r.customerName, r.customerEmail, r.startDate, r.endDate, r.totalPrice, r.status)"
+            + " from Reservation r join r.car c"
+            + " where r.customerEmail = :email"
+            + "   and (r.startDate < :date or (r.startDate = :date and r.id < :id))"
+            + " order by r.startDate desc, r.id desc")
+    List<ReservationView> findHistoryPage(@Param("email") String email,
+                                          @Param("date") LocalDate date,
+                                          @Param("id") long id,
+                                          Limit limit);
+
+    @Query("select r.car.id from Reservation r where r.id = :id")
+    Optional<Long> findCarIdById(@Param("id") Long id);
+
+    /** Date ranges of every reservation that still holds its car (i.e. not in the given status). */
+    @Query("select new luxuryride.dto.ReservationSlot(r.id, r.car.id, r.startDate, r.endDate)"
+            + " from Reservation r where r.status is null or r.status <> :status")
+    List<ReservationSlot> findSlotsByStatusNot(@Param("status") Reservation.Status status);
+
+    /** Reservations in the given status with their creation time, for re-arming the pending holds. */
+    @Query("select new luxuryride.dto.PendingHold(r.id, r.car.id, r.createdAt)"
+            + " from Reservation r where r.status = :status")
+    List<PendingHold> findHoldsByStatus(@Param("status") Reservation.Status status);
+
+    List<Reservation> findByIdInAndStatus(Collection<Long> ids, Reservation.Status status);
+
+    /** Ids of those of the given reservations that are in {@code status}. */
+    @Query("select r.id from Reservation r where r.id in :ids and r.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                      @Param("status") Reservation.Status status);
+
+    /**
+     * Bulk status change of the given reservations that are still in
+     * {@code from}; returns how many rows changed. Bypasses the persistence
+     * context, so don't mix with managed entities in the same transaction.
+     */
+    @Modifying
+    @Query("update Reservation r set r.status = :to where r.id in :ids and r.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("from") Reservation.Status from,
+                     @Param("to") Reservation.Status to);
+
+    /** Reservation count and total price per start date and status, for rebuilding the stats rollups. */
+    @Query("select new luxuryride.dto.DailyTotal(r.startDate, r.status, count(r), sum(r.totalPrice))"
+            + " from Reservation r group by r.startDate, r.status")
+    List<DailyTotal> findDailyTotals();
 }
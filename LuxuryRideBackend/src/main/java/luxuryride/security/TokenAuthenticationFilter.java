@@ -0,0 +1,54 @@
+package luxuryride.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>}.
+ *
+ * A missing, forged or expired token leaves the request anonymous: public
+ * endpoints still answer, protected ones get 401 from the entry point.
+ * Not a bean, so Boot doesn't also register it as a plain servlet filter.
+ *
+ * The context is also saved as a request attribute, where the async and
+ * error dispatches of the same request (a streamed export, say) load it
+ * from; this filter itself only runs on the first dispatch.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokens;
+    private final SecurityContextRepository contexts = new RequestAttributeSecurityContextRepository();
+
+    public TokenAuthenticationFilter(TokenService tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            Authentication authentication = tokens.verify(header.substring(BEARER.length()).trim());
+            if (authentication != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+                contexts.saveContext(context, request, response);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
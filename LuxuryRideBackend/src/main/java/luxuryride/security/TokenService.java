@@ -0,0 +1,133 @@
+package luxuryride.security;
+
+import luxuryride.dto.AuthToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Issues and verifies the bearer tokens handed out by {@code POST /api/auth/login}.
+ *
+ * A token is {@code <user>.<authorities>.<expiry>.<signature>}: the user name
+ * base64url-encoded, the authorities comma-separated, the expiry in epoch
+ * seconds, and an HMAC-SHA256 of the first three parts. Checking one is an
+ * HMAC over a few dozen bytes, so the password hash is only paid once, at
+ * login. Tokens that already verified are kept in the {@code authTokens}
+ * cache, which saves the HMAC and the parsing on repeat requests.
+ *
+ * Tokens can't be revoked before they expire; keep {@code token-ttl} short.
+ * Without a configured {@code token-secret} a random one is made at startup,
+ * which logs everyone out on restart and doesn't work across instances.
+ */
+@Component
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    /** Verified tokens, to their authentication and expiry. */
+    public static final String CACHE = "authTokens";
+
+    private static final String HMAC = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Cache verified;
+
+    public TokenService(CacheManager cacheManager,
+                        @Value("${luxuryride.auth.token-secret:}") String secret,
+                        @Value("${luxuryride.auth.token-ttl:15m}") Duration ttl) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("No luxuryride.auth.token-secret configured; tokens will not survive a restart");
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC);
+        this.ttl = ttl;
+        this.verified = cacheManager.getCache(CACHE);
+    }
+
+    /** A token for an authenticated user, valid for {@code token-ttl}. */
+    public AuthToken issue(Authentication authentication) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        List<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        String payload = ENCODER.encodeToString(authentication.getName().getBytes(StandardCharsets.UTF_8))
+                + "." + String.join(",", authorities)
+                + "." + expiresAt.getEpochSecond();
+        String token = payload + "." + ENCODER.encodeToString(sign(payload));
+        return new AuthToken(token, "Bearer", expiresAt, authorities);
+    }
+
+    /** The authentication a token stands for, or null if it is malformed, forged or expired. */
+    public Authentication verify(String token) {
+        long now = Instant.now().getEpochSecond();
+        Verified cached = verified.get(token, Verified.class);
+        if (cached != null) {
+            return cached.expiresAt() > now ? cached.authentication() : null;
+        }
+        int signatureAt = token.lastIndexOf('.');
+        if (signatureAt < 0) {
+            return null;
+        }
+        String payload = token.substring(0, signatureAt);
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureAt + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return null;
+            }
+            String[] parts = payload.split("\\.", -1);
+            if (parts.length != 3) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(parts[2]);
+            if (expiresAt <= now) {
+                return null;
+            }
+            String user = new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8);
+            Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(user, null,
+                    AuthorityUtils.commaSeparatedStringToAuthorityList(parts[1]));
+            verified.put(token, new Verified(authentication, expiresAt));
+            return authentication;
+        } catch (IllegalArgumentException ex) {
+            // bad base64 or expiry
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record Verified(Authentication authentication, long expiresAt) {
+    }
+}
@@ -0,0 +1,129 @@
+package luxuryride.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs checkout work for one car at a time.
+ *
+ * Inside this instance, checkouts of the same car are serialized by a
+ * striped lock (a fixed array of locks indexed by car id hash), so cars on
+ * different stripes proceed fully in parallel and no table-wide lock is
+ * ever taken. Across instances the {@code @Version} column on Car makes the
+ * last writer fail; such conflicts are retried a bounded number of times.
+ *
+ * The work runs in its own transaction. The after-commit callback runs while
+ * the stripe is still held, so in-memory indexes are updated before the
+ * next checkout of the same car can look at them.
+ *
+ * The stripes are ReentrantLocks rather than monitors because they are held
+ * across JDBC calls: blocking inside {@code synchronized} would pin the
+ * carrier thread when requests run on virtual threads.
+ */
+@Component
+public class CarCheckout {
+
+    private static final Logger log = LoggerFactory.getLogger(CarCheckout.class);
+
+    private final ReentrantLock[] stripes;
+    private final TransactionTemplate tx;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public CarCheckout(PlatformTransactionManager transactionManager,
+                       @Value("${luxuryride.checkout.lock-stripes:256}") int lockStripes,
+                       @Value("${luxuryride.checkout.max-attempts:3}") int maxAttempts,
+                       @Value("${luxuryride.checkout.retry-backoff-ms:10}") long retryBackoffMs) {
+        // round up to a power of two so the stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.tx = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * Run {@code work} in a transaction while holding the car's stripe, then
+     * {@code afterCommit} with its result. Optimistic-lock conflicts are
+     * retried; after the last attempt the conflict is rethrown.
+     */
+    public <T> T execute(Long carId, Supplier<T> work, Consumer<? super T> afterCommit) {
+        ReentrantLock lock = stripeFor(carId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    T result = tx.execute(status -> work.get());
+                    afterCommit.accept(result);
+                    return result;
+                } catch (OptimisticLockingFailureException ex) {
+                    if (attempt >= maxAttempts) {
+                        throw ex;
+                    }
+                    log.debug("Checkout of car {} lost an optimistic-lock race (attempt {}), retrying", carId, attempt);
+                    backoff(attempt);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run {@code work} in one transaction while holding the stripes of all
+     * the given cars, then {@code afterCommit} with its result. Stripes are
+     * taken in index order, so this can't deadlock with another multi-car
+     * run or with single-car checkouts. No retry: meant for bulk updates
+     * that don't touch the cars' versions.
+     */
+    public <T> T executeAll(Collection<Long> carIds, Supplier<T> work, Consumer<? super T> afterCommit) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long carId : carIds) {
+            indexes.add(stripeIndex(carId));
+        }
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        try {
+            T result = tx.execute(status -> work.get());
+            afterCommit.accept(result);
+            return result;
+        } finally {
+            for (int index : indexes.descendingSet()) {
+                stripes[index].unlock();
+            }
+        }
+    }
+
+    ReentrantLock stripeFor(Long carId) {
+        return stripes[stripeIndex(carId)];
+    }
+
+    private int stripeIndex(Long carId) {
+        long h = carId * 0x9E3779B97F4A7C15L;   // spread sequential ids across stripes
+        return (int) (h >>> 32) & (stripes.length - 1);
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying checkout", ex);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package luxuryride.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.ImportResult;
+import luxuryride.entities.Car;
+import luxuryride.events.CarsImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk import of cars from NDJSON or CSV.
+ *
+ * The body is read line by line as it arrives, never buffered whole.
+ * Valid rows are collected into batches of {@code luxuryride.import.batch-size};
+ * each batch is one transaction, announced by one {@link CarsImportedEvent}.
+ * (Car ids come from the table's identity column, so Hibernate sends each
+ * insert on its own; a sequence would let them go out as a JDBC batch, but
+ * needs a migration seeding it above the existing ids.) Invalid rows are
+ * reported and skipped; so are rows the database rejects, found by retrying
+ * a failed batch one row at a time.
+ */
+@Service
+public class CarImportService {
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public CarImportService(EntityManager em,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher events,
+                            ObjectMapper objectMapper,
+                            @Value("${luxuryride.import.batch-size:500}") int batchSize,
+                            @Value("${luxuryride.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.em = em;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.rowReader = objectMapper.readerFor(CarRow.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportResult importCars(InputStream body, DataFormat format) throws IOException {
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        String[] header = null;
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == DataFormat.CSV && header == null) {
+                header = parseCsvLine(line).toArray(String[]::new);
+                continue;
+            }
+            run.rowsRead++;
+            try {
+                CarRow row = format == DataFormat.CSV ? csvRow(header, line) : rowReader.readValue(line);
+                run.add(lineNo, row.toCar());
+            } catch (JsonProcessingException ex) {
+                run.reject(lineNo, ex.getOriginalMessage());
+            } catch (IllegalArgumentException ex) {
+                run.reject(lineNo, ex.getMessage());
+            }
+        }
+        run.flush();
+
+        long elapsed = Math.max(1, (System.nanoTime() - run.startNanos) / 1_000_000);
+        return new ImportResult(run.rowsRead, run.inserted, run.failed, run.errors,
+                run.failed > run.errors.size(), elapsed, run.rowsRead * 1000.0 / elapsed);
+    }
+
+    /** Mutable state of one import call. */
+    private final class Run {
+        final long startNanos = System.nanoTime();
+        final List<Car> batch = new ArrayList<>(batchSize);
+        final List<Long> batchLines = new ArrayList<>(batchSize);
+        final List<ImportResult.RowError> errors = new ArrayList<>();
+        long rowsRead;
+        long inserted;
+        long failed;
+
+        void add(long lineNo, Car car) {
+            batch.add(car);
+            batchLines.add(lineNo);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long lineNo, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResult.RowError(lineNo, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Car> saved = new ArrayList<>(batch.size());
+            try {
+                persist(batch);
+                saved.addAll(batch);
+            } catch (RuntimeException batchFailure) {
+                // the whole batch rolled back; find the rows the database won't take
+                for (int i = 0; i < batch.size(); i++) {
+                    Car car = batch.get(i);
+                    car.setId(null);
+                    car.setVersion(null);
+                    try {
+                        persist(List.of(car));
+                        saved.add(car);
+                    } catch (RuntimeException ex) {
+                        reject(batchLines.get(i), "Rejected by the database: " + rootMessage(ex));
+                    }
+                }
+            }
+            inserted += saved.size();
+            if (!saved.isEmpty()) {
+                events.publishEvent(new CarsImportedEvent(
+                        saved.stream().map(car -> CarSummary.of(car, true)).toList()));
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+    }
+
+    /** Insert the cars in one transaction. */
+    private void persist(List<Car> cars) {
+        tx.executeWithoutResult(status -> {
+            cars.forEach(em::persist);
+            em.flush();
+            em.clear();
+        });
+    }
+
+    /** One input row; missing flags default to false, except available. */
+    record CarRow(String brand,
+                  String model,
+                  String plates,
+                  Double price,
+                  Boolean available,
+                  Boolean forRent,
+                  Boolean forSale,
+                  String description,
+                  Double rentalPricePerDay) {
+
+        Car toCar() {
+            if (brand == null || brand.isBlank()) {
+                throw new IllegalArgumentException("brand is required");
+            }
+            if (model == null || model.isBlank()) {
+                throw new IllegalArgumentException("model is required");
+            }
+            if (price == null || price < 0 || price.isNaN()) {
+                throw new IllegalArgumentException("price must be a non-negative number");
+            }
+            if (rentalPricePerDay != null && (rentalPricePerDay < 0 || rentalPricePerDay.isNaN())) {
+                throw new IllegalArgumentException("rentalPricePerDay must be a non-negative number");
+            }
+            Car car = new Car(null, brand, model, plates, price,
+                    available == null || available,
+                    Boolean.TRUE.equals(forRent),
+                    Boolean.TRUE.equals(forSale),
+                    description);
+            car.setRentalPricePerDay(rentalPricePerDay);
+            return car;
+        }
+    }
+
+    private static CarRow csvRow(String[] header, String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " columns but got " + values.size());
+        }
+        Map<String, String> byName = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            byName.put(header[i].trim(), values.get(i).isEmpty() ? null : values.get(i));
+        }
+        return new CarRow(byName.get("brand"),
+                byName.get("model"),
+                byName.get("plates"),
+                parseDouble("price", byName.get("price")),
+                parseBoolean(byName.get("available")),
+                parseBoolean(byName.get("forRent")),
+                parseBoolean(byName.get("forSale")),
+                byName.get("description"),
+                parseDouble("rentalPricePerDay", byName.get("rentalPricePerDay")));
+    }
+
+    /** RFC 4180 fields on a single line: commas, double quotes and "" escapes. */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Double parseDouble(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "true", "1", "yes" -> true;
+            case "false", "0", "no" -> false;
+            default -> throw new IllegalArgumentException("not a boolean: " + value);
+        };
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() == null ? root.getClass().getSimpleName() : root.getMessage();
+    }
+}
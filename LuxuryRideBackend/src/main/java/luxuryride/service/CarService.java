@@ -1,49 +1,335 @@
 package luxuryride.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import luxuryride.dto.AvailableCar;
+import luxuryride.dto.CachedJson;
+import luxuryride.dto.CarFacets;
+import luxuryride.dto.CarFilter;
+import luxuryride.dto.CarPage;
+import luxuryride.dto.CarSummary;
 import luxuryride.entities.Car;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import luxuryride.index.AvailabilityIndex;
+import luxuryride.index.CarFacetIndex;
+import luxuryride.index.CarSearchIndex;
+import luxuryride.pricing.PricingEngine;
+import luxuryride.stream.CarChangeStream;
 import luxuryride.repository.CarRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class CarService {
 
+    /** Single cars, keyed by id; filled by {@link #getCarById}. */
+    public static final String CAR_CACHE = "cars";
+    /** Serialized single-car responses, keyed by id. */
+    public static final String CAR_JSON_CACHE = "carJson";
+    /** Cached catalog listings (full list and keyset pages). */
+    public static final String CATALOG_CACHE = "carCatalog";
+
+    static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_SEARCH_RESULTS = 100;
+
     private final CarRepository repo;
+    private final AvailabilityIndex availability;
+    private final CarSearchIndex searchIndex;
+    private final CarFacetIndex facetIndex;
+    private final PricingEngine pricing;
+    private final CarChangeStream changeStream;
+    private final CarCheckout checkout;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final Cache carCache;
+    private final Cache carJsonCache;
+    private final Cache catalogCache;
 
-    public CarService(CarRepository repo) {
+    // starts from the clock so ETags from before a restart never match
+    private final AtomicLong catalogRevision = new AtomicLong(System.currentTimeMillis());
+    private volatile Instant catalogModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private volatile CachedJson catalogJson;
+    // moved by every car change before its cache entries are evicted; see cacheAside
+    private final AtomicLong carChanges = new AtomicLong();
+    // every car as last published, so a change that only moves the version leaves the catalog alone
+    private final Map<Long, CarSummary> published = new ConcurrentHashMap<>();
+
+    public CarService(CarRepository repo,
+                      AvailabilityIndex availability,
+                      CarSearchIndex searchIndex,
+                      CarFacetIndex facetIndex,
+                      PricingEngine pricing,
+                      CarChangeStream changeStream,
+                      CarCheckout checkout,
+                      ApplicationEventPublisher events,
+                      ObjectMapper objectMapper,
+                      CacheManager cacheManager) {
         this.repo = repo;
+        this.availability = availability;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+        this.pricing = pricing;
+        this.changeStream = changeStream;
+        this.checkout = checkout;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.carCache = cacheManager.getCache(CAR_CACHE);
+        this.carJsonCache = cacheManager.getCache(CAR_JSON_CACHE);
+        this.catalogCache = cacheManager.getCache(CATALOG_CACHE);
+    }
+
+    /**
+     * Build the search and facet indexes, the pricing rates and the car
+     * stream's view of the fleet from one scan of every car; later changes
+     * arrive as CarChangedEvents.
+     */
+    @PostConstruct
+    void loadIndexes() {
+        List<CarSummary> cars = repo.findSearchableSummaries();
+        searchIndex.load(cars);
+        facetIndex.load(cars);
+        pricing.load(cars);
+        changeStream.load(cars);
+        published.clear();
+        cars.forEach(car -> published.put(car.id(), car));
+    }
+
+    /**
+     * The full car list as JSON, serialized once per catalog revision, so
+     * repeated reads cost neither a query nor Jackson work. The ETag is the
+     * revision, which every change to what a car shows moves.
+     */
+    public CachedJson getCatalogJson() {
+        String etag = "\"catalog-" + catalogRevision.get() + "\"";
+        Instant modified = catalogModified;
+        CachedJson cached = catalogJson;
+        if (cached != null && cached.etag().equals(etag)) {
+            return cached;
+        }
+        // tagged with the revision read before loading: a change landing
+        // meanwhile moves the revision, and the next read rebuilds
+        CachedJson built = new CachedJson(etag, modified, toJson(repo.findAll()));
+        catalogJson = built;
+        return built;
+    }
+
+    /**
+     * One car as JSON, cached until the car changes, with an ETag from its
+     * id and a digest of the body (a checkout moves the version but not the
+     * body); empty if there is no such car.
+     */
+    public Optional<CachedJson> getCarJson(Long id) {
+        CachedJson cached = carJsonCache.get(id, CachedJson.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long changes = carChanges.get();
+        Instant modified = catalogModified;
+        return repo.findById(id).map(car -> {
+            byte[] body = toJson(car);
+            CachedJson built = new CachedJson("\"car-" + car.getId() + "-" + digest(body) + "\"", modified, body);
+            cacheAside(carJsonCache, id, built, changes);
+            return built;
+        });
+    }
+
+    /**
+     * Cache a value loaded after reading {@code changes}. A car change that
+     * committed while it loaded may already have evicted the key, leaving
+     * this put as the stale entry; so once a change has moved the counter
+     * the entry is evicted again. The counter moves before the evictions,
+     * so either this check sees it or their evict comes after this put.
+     */
+    private void cacheAside(Cache cache, Long id, Object value, long changes) {
+        cache.put(id, value);
+        if (carChanges.get() != changes) {
+            cache.evict(id);
+        }
     }
 
-    public List<Car> getAllCars() {
-        return repo.findAll();
+    /** First 64 bits of the body's SHA-256, as hex. */
+    private static String digest(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Keyset-paginated catalog page: returns up to {@code limit} cars with
+     * {@code id > afterId} matching the filter, ordered by id.
+     */
+    @Cacheable(CATALOG_CACHE)
+    public CarPage getCarPage(Long afterId, int limit, CarFilter filter, boolean includeDescription) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = afterId == null ? 0L : afterId;
+        // fetch one extra row so we know whether another page exists
+        Limit fetch = Limit.of(size + 1);
+
+        List<CarSummary> items = includeDescription
+                ? repo.findPage(cursor, filter.forRent(), filter.forSale(), filter.available(),
+                        filter.minPrice(), filter.maxPrice(), filter.brand(), fetch)
+                    .stream()
+                    .map(car -> CarSummary.of(car, true))
+                    .toList()
+                : repo.findSummaryPage(cursor, filter.forRent(), filter.forSale(), filter.available(),
+                        filter.minPrice(), filter.maxPrice(), filter.brand(), fetch);
+
+        if (items.size() <= size) {
+            return new CarPage(items, null);
+        }
+        List<CarSummary> page = items.subList(0, size);
+        return new CarPage(page, page.get(size - 1).id());
+    }
+
+    /**
+     * Counts for the catalog filters under the given filter combination.
+     * Answered from the facet index only.
+     */
+    public CarFacets getFacets(CarFilter filter) {
+        return facetIndex.facets(filter);
+    }
+
+    /**
+     * Full-text search over brand, model and description, best match first.
+     * Answered from the search index only.
+     */
+    public List<CarSummary> search(String query, int limit) {
+        return searchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    /**
+     * Every rentable car that is free for the whole period, with the rental
+     * price it would be charged. Answered from the availability index and
+     * the pricing engine only.
+     */
+    public List<AvailableCar> getAvailableCars(LocalDate start, LocalDate end) {
+        pricing.checkPeriod(start, end);
+        long days = PricingEngine.days(start, end);
+        return availability.findFreeCars(start, end).stream()
+                .map(car -> new AvailableCar(car, days, pricing.quote(car, start, end).totalPrice()))
+                .toList();
+    }
+
+    /**
+     * Served from the car cache. A cache miss loads the car and caches it
+     * through {@link #cacheAside} rather than {@code @Cacheable}, so a load
+     * that raced a change to the car doesn't leave the old car cached.
+     * Unknown ids aren't cached.
+     */
     public Optional<Car> getCarById(Long id) {
-        return repo.findById(id);
+        Car cached = carCache.get(id, Car.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long changes = carChanges.get();
+        Optional<Car> car = repo.findById(id);
+        car.ifPresent(loaded -> cacheAside(carCache, id, loaded, changes));
+        return car;
     }
 
     public Car createCar(Car car) {
-        return repo.save(car);
+        Car saved = repo.save(car);
+        events.publishEvent(CarChangedEvent.saved(saved));
+        return saved;
     }
 
+    /**
+     * Runs as a checkout of the car: the edit is applied to the row as it
+     * is now, so a rental committing meanwhile is retried over rather than
+     * failing the edit, and the change is published in commit order with
+     * the car's other checkouts.
+     */
     public Car updateCar(Long id, Car carDetails) {
-        return repo.findById(id).map(car -> {
-            car.setBrand(carDetails.getBrand());
-            car.setModel(carDetails.getModel());
-            car.setPlates(carDetails.getPlates());
-            car.setPrice(carDetails.getPrice());
-            car.setAvailable(carDetails.isAvailable());
-            car.setForRent(carDetails.isForRent());
-            car.setForSale(carDetails.isForSale());
-            car.setDescription(carDetails.getDescription());
-            return repo.save(car);
-        }).orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
+        return checkout.execute(id,
+                () -> repo.findById(id).map(car -> {
+                    car.setBrand(carDetails.getBrand());
+                    car.setModel(carDetails.getModel());
+                    car.setPlates(carDetails.getPlates());
+                    car.setPrice(carDetails.getPrice());
+                    car.setRentalPricePerDay(carDetails.getRentalPricePerDay());
+                    car.setAvailable(carDetails.isAvailable());
+                    car.setForRent(carDetails.isForRent());
+                    car.setForSale(carDetails.isForSale());
+                    car.setDescription(carDetails.getDescription());
+                    return repo.save(car);
+                }),
+                saved -> saved.ifPresent(car -> events.publishEvent(CarChangedEvent.saved(car))))
+                .orElseThrow(() -> OperationRejectedException.carNotFound(id));
     }
 
+    /** Runs as a checkout of the car, like {@link #updateCar}. */
     public void deleteCar(Long id) {
-        repo.deleteById(id);
+        checkout.execute(id,
+                () -> repo.findById(id).map(car -> {
+                    repo.delete(car);
+                    return id;
+                }),
+                deleted -> deleted.ifPresent(carId -> events.publishEvent(CarChangedEvent.deleted(carId))));
+    }
+
+    /**
+     * Invalidate exactly the changed car, whatever changed it (CRUD here,
+     * or a rental/sale checkout). Unless only its version moved, also drop
+     * every cached listing, then move the catalog revision. Only after the
+     * caches are gone, so a body built under the new revision can't come
+     * from a stale cache.
+     */
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        carChanges.incrementAndGet();
+        carCache.evict(event.carId());
+        carJsonCache.evict(event.carId());
+        if (event.isDeleted()) {
+            published.remove(event.carId());
+        } else if (event.car().equals(published.put(event.carId(), event.car()))) {
+            // a rental: the listings show nothing that changed
+            return;
+        }
+        catalogChanged();
+    }
+
+    /** New cars only: nothing of theirs is cached yet, but every listing is stale. */
+    @EventListener
+    public void onCarsImported(CarsImportedEvent event) {
+        carChanges.incrementAndGet();
+        event.cars().forEach(car -> published.put(car.id(), car));
+        catalogChanged();
+    }
+
+    private void catalogChanged() {
+        catalogCache.clear();
+        catalogModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        catalogRevision.incrementAndGet();
     }
 }
 
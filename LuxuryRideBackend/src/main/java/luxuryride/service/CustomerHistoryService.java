@@ -0,0 +1,113 @@
+package luxuryride.service;
+
+import luxuryride.dto.HistoryEntry;
+import luxuryride.dto.HistoryPage;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A customer's reservations and purchases merged into one history, newest
+ * first, paged with a keyset cursor.
+ *
+ * Entries are totally ordered by (date desc, type, id desc), with undated
+ * purchases (legacy rows) last, as if older than every date. Each stream is
+ * read with an index-backed (date, id) keyset query for at most one page
+ * plus one row, so a page costs two bounded index range scans however long
+ * the history is.
+ */
+@Service
+public class CustomerHistoryService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    /** Sorts after every real date, so the first page starts at the top. */
+    private static final LocalDate TOP = LocalDate.of(9999, 12, 31);
+
+    private static final Comparator<HistoryEntry> NEWEST_FIRST = Comparator
+            .comparing(HistoryEntry::date, Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()))
+            .thenComparing(HistoryEntry::type)
+            .thenComparing(HistoryEntry::id, Comparator.reverseOrder());
+
+    private final ReservationRepository reservationRepo;
+    private final PurchaseRepository purchaseRepo;
+
+    public CustomerHistoryService(ReservationRepository reservationRepo,
+                                  PurchaseRepository purchaseRepo) {
+        this.reservationRepo = reservationRepo;
+        this.purchaseRepo = purchaseRepo;
+    }
+
+    /**
+     * @param cursor {@code null} for the first page, otherwise a nextCursor
+     *               from a previous page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public HistoryPage getHistory(String email, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Position after = cursor == null ? new Position(TOP, HistoryEntry.Type.RESERVATION, Long.MAX_VALUE)
+                                        : Position.decode(cursor);
+        Limit fetch = Limit.of(size + 1);
+
+        List<HistoryEntry> merged = new ArrayList<>(2 * size + 2);
+        purchaseRepo.findHistoryPage(email, after.date(), after.idBoundFor(HistoryEntry.Type.PURCHASE), fetch)
+                .forEach(p -> merged.add(HistoryEntry.of(p)));
+        reservationRepo.findHistoryPage(email, after.date(), after.idBoundFor(HistoryEntry.Type.RESERVATION), fetch)
+                .forEach(r -> merged.add(HistoryEntry.of(r)));
+        merged.sort(NEWEST_FIRST);
+
+        if (merged.size() <= size) {
+            return new HistoryPage(merged, null);
+        }
+        List<HistoryEntry> page = merged.subList(0, size);
+        HistoryEntry last = page.get(size - 1);
+        return new HistoryPage(page, new Position(last.date(), last.type(), last.id()).encode());
+    }
+
+    /**
+     * Keyset position of the last entry returned; a null date is a position
+     * among the undated purchases, after which no reservation is left.
+     */
+    record Position(LocalDate date, HistoryEntry.Type type, long id) {
+
+        /**
+         * Translate "strictly after this position" into the per-stream
+         * predicate {@code date < :date or (date = :date and id < :id)}:
+         * on the cursor's day, a later type takes every id and an earlier
+         * type takes none.
+         */
+        long idBoundFor(HistoryEntry.Type stream) {
+            int cmp = stream.compareTo(type);
+            if (cmp > 0) {
+                return Long.MAX_VALUE;
+            }
+            return cmp < 0 ? Long.MIN_VALUE : id;
+        }
+
+        String encode() {
+            String raw = date + "|" + type + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Position decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                return new Position("null".equals(parts[0]) ? null : LocalDate.parse(parts[0]),
+                        HistoryEntry.Type.valueOf(parts[1]),
+                        Long.parseLong(parts[2]));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid history cursor", ex);
+            }
+        }
+    }
+}
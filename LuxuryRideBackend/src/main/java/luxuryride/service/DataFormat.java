@@ -0,0 +1,43 @@
+package luxuryride.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented formats used by bulk import and export.
+ */
+public enum DataFormat {
+
+    NDJSON(MediaType.valueOf("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.valueOf("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    DataFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /** Format for a request Content-Type; anything that isn't CSV is NDJSON. */
+    public static DataFormat of(MediaType contentType) {
+        return CSV.mediaType.includes(contentType) ? CSV : NDJSON;
+    }
+
+    /** Format for a {@code format=ndjson|csv} request parameter. */
+    public static DataFormat of(String name) {
+        for (DataFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name);
+    }
+}
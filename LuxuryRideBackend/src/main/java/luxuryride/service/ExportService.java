@@ -0,0 +1,148 @@
+package luxuryride.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import luxuryride.dto.PurchaseView;
+import luxuryride.dto.ReservationView;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams purchase and reservation history straight from a database cursor
+ * to the response, one row at a time, so memory stays constant whatever the
+ * size of the tables. Rows are flat DTO projections, so nothing accumulates
+ * in the persistence context either. An export may run for up to
+ * {@code luxuryride.export.timeout}.
+ */
+@Service
+public class ExportService {
+
+    private final PurchaseRepository purchaseRepo;
+    private final ReservationRepository reservationRepo;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter jsonWriter;
+    private final Duration timeout;
+
+    public ExportService(PurchaseRepository purchaseRepo,
+                         ReservationRepository reservationRepo,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${luxuryride.export.timeout:30m}") Duration timeout) {
+        this.purchaseRepo = purchaseRepo;
+        this.reservationRepo = reservationRepo;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        // one value per line: we write the newline ourselves, no root separator
+        this.jsonWriter = objectMapper.writer()
+                .withRootValueSeparator("")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.timeout = timeout;
+    }
+
+    /** How long an export response may stream before the container ends it. */
+    public Duration timeout() {
+        return timeout;
+    }
+
+    /** Purchases dated within [from, to] (null = open bound), ordered by id. */
+    public void exportPurchases(LocalDate from, LocalDate to, DataFormat format, OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<PurchaseView> rows = purchaseRepo.streamViews(from, to)) {
+                write(rows, PurchaseView.class, format, out);
+            }
+        });
+    }
+
+    /** Reservations starting within [from, to] (null = open bound), ordered by id. */
+    public void exportReservations(LocalDate from, LocalDate to, DataFormat format, OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<ReservationView> rows = reservationRepo.streamViews(from, to)) {
+                write(rows, ReservationView.class, format, out);
+            }
+        });
+    }
+
+    private <T extends Record> void write(Stream<T> rows, Class<T> type, DataFormat format, OutputStream out) {
+        try {
+            if (format == DataFormat.CSV) {
+                writeCsv(rows.iterator(), type, out);
+            } else {
+                writeNdjson(rows.iterator(), out);
+            }
+            out.flush();
+        } catch (IOException ex) {
+            // client went away; rolls back the read-only transaction and closes the cursor
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeNdjson(Iterator<?> rows, OutputStream out) throws IOException {
+        try (JsonGenerator gen = jsonWriter.createGenerator(out)) {
+            while (rows.hasNext()) {
+                jsonWriter.writeValue(gen, rows.next());
+                gen.writeRaw('\n');
+            }
+        }
+    }
+
+    /** Header from the record's component names, then one line per row. */
+    private static void writeCsv(Iterator<? extends Record> rows, Class<? extends Record> type,
+                                 OutputStream out) throws IOException {
+        RecordComponent[] columns = type.getRecordComponents();
+        Method[] accessors = new Method[columns.length];
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (int i = 0; i < columns.length; i++) {
+            accessors[i] = columns[i].getAccessor();
+            writer.write(i == 0 ? "" : ",");
+            writer.write(columns[i].getName());
+        }
+        writer.write('\n');
+        while (rows.hasNext()) {
+            Record row = rows.next();
+            for (int i = 0; i < accessors.length; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write(csvField(read(accessors[i], row)));
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static Object read(Method accessor, Record row) {
+        try {
+            return accessor.invoke(row);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,211 @@
+package luxuryride.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import luxuryride.entities.IdempotencyRecord;
+import luxuryride.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * {@code Idempotency-Key} support for non-repeatable POSTs (rent, buy).
+ *
+ * The first request with a key runs; its response (status and JSON body)
+ * is kept in a bounded, TTL-evicting cache and in the idempotency_keys
+ * table. A retry with the same key gets that response back, marked
+ * {@code Idempotent-Replayed: true}, without the operation running again.
+ * The table is only read when the cache misses (eviction, restart).
+ *
+ * Keys are scoped by operation and caller. A retry carrying a different
+ * body than the first attempt is refused with 422. While the first attempt
+ * is still running on this instance, retries wait for its outcome.
+ *
+ * Only final answers are stored: successes and client errors. A lost
+ * optimistic-lock race (409) or a server error leaves the key free, so
+ * the retry runs for real.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    /** Completed outcomes by scoped key. */
+    public static final String CACHE = "idempotency";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repo;
+    private final ObjectMapper objectMapper;
+    private final Cache cache;
+    private final Duration ttl;
+    private final ConcurrentMap<String, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repo,
+                              ObjectMapper objectMapper,
+                              CacheManager cacheManager,
+                              @Value("${luxuryride.idempotency.ttl:24h}") Duration ttl) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+        this.cache = cacheManager.getCache(CACHE);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Run {@code action} once per {@code key}: without a key it simply
+     * runs; with one, a stored outcome is replayed (its body read back as
+     * {@code bodyType}) instead.
+     */
+    public <T> ResponseEntity<T> execute(String operation, String key, Object request,
+                                         Class<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        String scoped = operation + ":" + caller() + ":" + key;
+        String fingerprint = fingerprint(request);
+        while (true) {
+            Outcome stored = lookup(scoped);
+            if (stored != null) {
+                return replay(stored, fingerprint, bodyType);
+            }
+            CompletableFuture<Outcome> mine = new CompletableFuture<>();
+            CompletableFuture<Outcome> running = inFlight.putIfAbsent(scoped, mine);
+            if (running != null) {
+                // null: the first attempt didn't produce a final answer; go again
+                Outcome first = running.join();
+                if (first != null) {
+                    return replay(first, fingerprint, bodyType);
+                }
+                continue;
+            }
+            Outcome outcome = null;
+            try {
+                // it may have completed between the lookup and taking the slot
+                stored = lookup(scoped);
+                if (stored != null) {
+                    outcome = stored;
+                    return replay(stored, fingerprint, bodyType);
+                }
+                ResponseEntity<T> response = action.get();
+                if (isFinal(response.getStatusCode().value())) {
+                    outcome = new Outcome(fingerprint, response.getStatusCode().value(), toJson(response.getBody()));
+                    store(scoped, outcome);
+                }
+                return response;
+            } finally {
+                inFlight.remove(scoped, mine);
+                mine.complete(outcome);
+            }
+        }
+    }
+
+    /** Drop stored keys older than the TTL (the cache expires its own). */
+    @Scheduled(cron = "${luxuryride.idempotency.purge-cron:0 15 * * * *}")
+    public int purgeExpired() {
+        int purged = repo.deleteCreatedBefore(Instant.now().minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+        return purged;
+    }
+
+    private Outcome lookup(String scoped) {
+        Outcome cached = cache.get(scoped, Outcome.class);
+        if (cached != null) {
+            return cached;
+        }
+        return repo.findById(scoped)
+                .filter(r -> r.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+                .map(r -> {
+                    Outcome outcome = new Outcome(r.getFingerprint(), r.getStatus(), r.getBody());
+                    cache.put(scoped, outcome);
+                    return outcome;
+                })
+                .orElse(null);
+    }
+
+    private void store(String scoped, Outcome outcome) {
+        cache.put(scoped, outcome);
+        try {
+            repo.save(new IdempotencyRecord(scoped, outcome.fingerprint(), outcome.status(), outcome.body(),
+                    Instant.now()));
+        } catch (DataIntegrityViolationException ex) {
+            // another instance stored the same key first; either answer is the one the client got
+            log.debug("Idempotency key {} already stored", scoped);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(Outcome outcome, String fingerprint, Class<T> bodyType) {
+        if (!outcome.fingerprint().equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        try {
+            T body = outcome.body() == null ? null : objectMapper.readValue(outcome.body(), bodyType);
+            return ResponseEntity.status(outcome.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 2xx and 4xx other than 409; a conflict or a server error may go differently next time. */
+    private static boolean isFinal(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value();
+    }
+
+    private static String caller() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : "";
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return new String(objectMapper.writeValueAsBytes(body), StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A final answer to one key, as stored. */
+    record Outcome(String fingerprint, int status, String body) {
+    }
+}
@@ -0,0 +1,43 @@
+package luxuryride.service;
+
+/**
+ * A business operation refused for a known reason (unknown car, car not
+ * offered for rent or sale, dates taken, bad period). Still an
+ * IllegalArgumentException, so callers that map those to 400 keep working;
+ * the reason is what metrics and error handling can switch on.
+ */
+public class OperationRejectedException extends IllegalArgumentException {
+
+    public enum Reason { CAR_NOT_FOUND, NOT_FOR_RENT, NOT_FOR_SALE, NOT_AVAILABLE, INVALID_PERIOD }
+
+    private final Reason reason;
+
+    public OperationRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    static OperationRejectedException carNotFound(Long carId) {
+        return new OperationRejectedException(Reason.CAR_NOT_FOUND, "Car not found: " + carId);
+    }
+
+    static OperationRejectedException notForRent() {
+        return new OperationRejectedException(Reason.NOT_FOR_RENT, "Car is not for rent");
+    }
+
+    static OperationRejectedException notForSale() {
+        return new OperationRejectedException(Reason.NOT_FOR_SALE, "Car is not for sale");
+    }
+
+    static OperationRejectedException notAvailable() {
+        return new OperationRejectedException(Reason.NOT_AVAILABLE, "Car is not available");
+    }
+
+    static OperationRejectedException invalidPeriod() {
+        return new OperationRejectedException(Reason.INVALID_PERIOD, "Invalid rental period");
+    }
+}
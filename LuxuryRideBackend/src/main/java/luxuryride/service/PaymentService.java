@@ -1,36 +1,57 @@
 package luxuryride.service;
 
-
 import luxuryride.entities.Payment;
 import luxuryride.repository.PaymentRepository;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-    @Service
-    public class PaymentService {
-
-        @Autowired
-        private PaymentRepository paymentRepository;
+@Service
+public class PaymentService {
 
-        public Payment createPayment(Payment payment) {
-            return paymentRepository.save(payment);
-        }
+    private final PaymentRepository paymentRepository;
+    private final PaymentWriter writer;
 
-        public List<Payment> getAllPayments() {
-            return paymentRepository.findAll();
-        }
+    public PaymentService(PaymentRepository paymentRepository, PaymentWriter writer) {
+        this.paymentRepository = paymentRepository;
+        this.writer = writer;
+    }
 
-        public Payment getPaymentById(Long id) {
-            return paymentRepository.findById(id).orElse(null);
-        }
+    /**
+     * Record a payment. In write-behind mode a copy is queued and the
+     * given payment is returned as it is, without an id; see
+     * {@link #recordPayment} and {@link #awaitFlush} for callers that need
+     * it stored.
+     */
+    public Payment createPayment(Payment payment) {
+        return writer.isEnabled() ? recordPayment(payment).getNow(payment) : paymentRepository.save(payment);
+    }
 
+    /**
+     * Record a payment; the future completes once it is stored. Written
+     * synchronously when write-behind is off or its queue is full.
+     */
+    public CompletableFuture<Payment> recordPayment(Payment payment) {
+        CompletableFuture<Payment> queued = writer.submit(payment);
+        return queued != null ? queued : CompletableFuture.completedFuture(paymentRepository.save(payment));
+    }
 
+    /** Wait until every payment queued before this call is stored; false on timeout. */
+    public boolean awaitFlush(Duration timeout) throws InterruptedException {
+        return writer.awaitFlush(timeout);
+    }
 
-        public void deletePayment(Long id) {
-            paymentRepository.deleteById(id);
-        }
+    public List<Payment> getAllPayments() {
+        return paymentRepository.findAll();
     }
 
+    public Payment getPaymentById(Long id) {
+        return paymentRepository.findById(id).orElse(null);
+    }
 
+    public void deletePayment(Long id) {
+        paymentRepository.deleteById(id);
+    }
+}
@@ -0,0 +1,350 @@
+package luxuryride.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import luxuryride.entities.Client;
+import luxuryride.entities.Payment;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind for payments ({@code luxuryride.payments.write-behind=true}).
+ *
+ * Payments go into a bounded queue and a dedicated writer thread persists
+ * them in JDBC batches, whenever {@code batch-size} payments are waiting or
+ * {@code flush-interval} has passed since the first one. A batch the
+ * database rejects is retried row by row, so one bad payment doesn't take
+ * its neighbours down.
+ *
+ * When the queue stays full for {@code enqueue-timeout},
+ * {@link #submit} returns null and the caller writes synchronously, which
+ * slows producers down to the database's pace instead of growing memory.
+ *
+ * On shutdown the writer drains the queue for up to
+ * {@code shutdown-timeout}; whatever is left is appended to
+ * {@code spill-file} as NDJSON and fsynced, and replayed into the table at
+ * the next startup (whether or not write-behind is still on).
+ */
+@Component
+public class PaymentWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentWriter.class);
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration enqueueTimeout;
+    private final Duration shutdownTimeout;
+    private final Path spillFile;
+
+    private final BlockingQueue<Pending> queue;
+    // queued or being written; awaitFlush waits for this to reach zero
+    private final AtomicLong unwritten = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    private volatile boolean accepting;
+    private Thread writer;
+
+    private final Counter written;
+    private final Counter synchronous;
+    private final Counter failed;
+    private final Counter spilled;
+
+    public PaymentWriter(EntityManager em,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         MeterRegistry registry,
+                         @Value("${luxuryride.payments.write-behind:false}") boolean enabled,
+                         @Value("${luxuryride.payments.queue-capacity:10000}") int queueCapacity,
+                         @Value("${luxuryride.payments.batch-size:200}") int batchSize,
+                         @Value("${luxuryride.payments.flush-interval:200ms}") Duration flushInterval,
+                         @Value("${luxuryride.payments.enqueue-timeout:100ms}") Duration enqueueTimeout,
+                         @Value("${luxuryride.payments.shutdown-timeout:10s}") Duration shutdownTimeout,
+                         @Value("${luxuryride.payments.spill-file:payments-spill.ndjson}") Path spillFile) {
+        this.em = em;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.enqueueTimeout = enqueueTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.spillFile = spillFile;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        this.written = Counter.builder("luxuryride.payments.written")
+                .description("Payments stored by the write-behind writer")
+                .register(registry);
+        this.synchronous = Counter.builder("luxuryride.payments.synchronous")
+                .description("Payments written by the caller because the write-behind queue was full or closed")
+                .register(registry);
+        this.failed = Counter.builder("luxuryride.payments.failed")
+                .description("Queued payments the database rejected")
+                .register(registry);
+        this.spilled = Counter.builder("luxuryride.payments.spilled")
+                .description("Queued payments saved to the spill file at shutdown")
+                .register(registry);
+        Gauge.builder("luxuryride.payments.queued", unwritten, AtomicLong::get)
+                .description("Payments accepted by the write-behind queue and not yet stored")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        replaySpill();
+        if (enabled) {
+            accepting = true;
+            writer = Thread.ofPlatform().name("payment-writer").start(this::run);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a copy of a payment; the future completes with the copy once it
+     * is stored (or fails if the database rejects it). The caller's payment
+     * is left as it is. Returns null when the caller should write it itself:
+     * write-behind is off, shutting down, or the queue stayed full.
+     */
+    public CompletableFuture<Payment> submit(Payment payment) {
+        // counted before the check, so stop() waits for a submit that saw accepting
+        unwritten.incrementAndGet();
+        if (!accepting) {
+            finished(1);
+            return null;
+        }
+        Pending pending = new Pending(copy(payment), new CompletableFuture<>());
+        try {
+            if (queue.offer(pending, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return pending.done();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finished(1);
+        synchronous.increment();
+        return null;
+    }
+
+    /**
+     * Wait until every payment queued before this call is stored (or has
+     * failed). Under continuous load this may also wait for later ones.
+     * @return false if the timeout passed first
+     */
+    public boolean awaitFlush(Duration timeout) throws InterruptedException {
+        long nanos = timeout.toNanos();
+        flushLock.lock();
+        try {
+            while (unwritten.get() > 0) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = flushed.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Stop accepting, drain what's queued, and spill whatever the writer couldn't store in time. */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        accepting = false;
+        writer.join(shutdownTimeout.toMillis());
+        // a submit that passed the check just before it was cleared may still be offering,
+        // after the writer has gone; spill until nothing is unwritten (or the offer timeout passed)
+        long deadline = System.nanoTime() + enqueueTimeout.toNanos();
+        List<Pending> left = new ArrayList<>();
+        while (true) {
+            queue.drainTo(left);
+            if (!left.isEmpty()) {
+                log.warn("Payment writer did not drain within {}; spilling {} payments to {}",
+                        shutdownTimeout, left.size(), spillFile);
+                spill(left);
+                finished(left.size());
+                left.clear();
+            }
+            if (unwritten.get() <= 0 || deadline - System.nanoTime() <= 0) {
+                return;
+            }
+            flushLock.lock();
+            try {
+                flushed.awaitNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // only stop() ends the loop; keep draining what's there
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            persist(batch.stream().map(Pending::payment).toList());
+            batch.forEach(p -> p.done().complete(p.payment()));
+            written.increment(batch.size());
+        } catch (RuntimeException batchFailure) {
+            // the whole batch rolled back; find the rows the database won't take
+            for (Pending p : batch) {
+                p.payment().setId(null);
+                try {
+                    persist(List.of(p.payment()));
+                    p.done().complete(p.payment());
+                    written.increment();
+                } catch (RuntimeException ex) {
+                    log.error("Payment rejected by the database: {}", p.payment(), ex);
+                    failed.increment();
+                    p.done().completeExceptionally(ex);
+                }
+            }
+        }
+        finished(batch.size());
+    }
+
+    /** Insert the payments in one transaction (or the caller's), as JDBC batches. */
+    private void persist(List<Payment> payments) {
+        tx.executeWithoutResult(status -> {
+            em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (Payment payment : payments) {
+                Client client = payment.getClient();
+                if (client != null && client.getId() != null) {
+                    payment.setClient(em.getReference(Client.class, client.getId()));
+                }
+                em.persist(payment);
+            }
+            em.flush();
+            em.clear();
+        });
+    }
+
+    private void finished(int count) {
+        unwritten.addAndGet(-count);
+        flushLock.lock();
+        try {
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Append payments to the spill file, one JSON object per line, and fsync it. */
+    void spill(List<Pending> pending) {
+        try (FileOutputStream out = new FileOutputStream(spillFile.toFile(), true);
+             Writer lines = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            for (Pending p : pending) {
+                lines.write(objectMapper.writeValueAsString(p.payment()));
+                lines.write('\n');
+            }
+            lines.flush();
+            out.getFD().sync();
+            spilled.increment(pending.size());
+        } catch (IOException e) {
+            log.error("Could not spill {} payments to {}; they are lost: {}", pending.size(), spillFile,
+                    pending.stream().map(Pending::payment).toList(), e);
+        }
+        pending.forEach(p -> p.done().completeExceptionally(
+                new IllegalStateException("Payment spilled to " + spillFile + " at shutdown")));
+    }
+
+    /** Store the payments spilled by a previous shutdown, then remove the file. */
+    void replaySpill() {
+        if (!Files.exists(spillFile)) {
+            return;
+        }
+        List<Payment> payments = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    Payment payment = objectMapper.readValue(line, Payment.class);
+                    payment.setId(null);
+                    payments.add(payment);
+                }
+            }
+            // all or nothing, so a failed replay can be retried without duplicates
+            tx.executeWithoutResult(status -> {
+                for (int from = 0; from < payments.size(); from += batchSize) {
+                    persist(payments.subList(from, Math.min(from + batchSize, payments.size())));
+                }
+            });
+            Files.delete(spillFile);
+            log.info("Replayed {} spilled payments from {}", payments.size(), spillFile);
+        } catch (IOException | RuntimeException e) {
+            // keep the file; replaying again later must not lose them
+            log.error("Could not replay spilled payments from {}", spillFile, e);
+        }
+    }
+
+    /** The writer sets the id and a client reference on what it stores; never on the caller's object. */
+    private static Payment copy(Payment payment) {
+        return new Payment(payment.getId(), payment.getClient(), payment.getPaymentDate(), payment.getAmount(),
+                payment.getPaymantType(), payment.getMethod());
+    }
+
+    record Pending(Payment payment, CompletableFuture<Payment> done) {
+    }
+}
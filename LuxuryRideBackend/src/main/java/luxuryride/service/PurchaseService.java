@@ -1,8 +1,12 @@
 package luxuryride.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
+import luxuryride.dto.PurchaseView;
 import luxuryride.entities.Car;
 import luxuryride.entities.Purchase;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.PurchaseChangedEvent;
 import luxuryride.repository.CarRepository;
 import luxuryride.repository.PurchaseRepository;
 
@@ -14,16 +18,25 @@ import java.util.Optional;
 public class PurchaseService {
     private final PurchaseRepository purchaseRepo;
     private final CarRepository carRepo;
+    private final CarService carService;
+    private final CarCheckout checkout;
+    private final ApplicationEventPublisher events;
 
     public PurchaseService(PurchaseRepository purchaseRepo,
-                           CarRepository carRepo) {
+                           CarRepository carRepo,
+                           CarService carService,
+                           CarCheckout checkout,
+                           ApplicationEventPublisher events) {
         this.purchaseRepo = purchaseRepo;
         this.carRepo      = carRepo;
+        this.carService   = carService;
+        this.checkout     = checkout;
+        this.events       = events;
     }
 
-    /** Fetch all purchases */
-    public List<Purchase> findAll() {
-        return purchaseRepo.findAll();
+    /** Fetch all purchases as flat rows (one query, no Car entities) */
+    public List<PurchaseView> findAll() {
+        return purchaseRepo.findAllViews();
     }
 
     /** Fetch one purchase by ID */
@@ -35,18 +48,40 @@ public class PurchaseService {
      * Buy a car:
      *  - Checks existence & forSale flag
      *  - Uses Car.purchasePrice as the amount
-     *  - Marks the car unavailable and no longer forSale
+     *  - Marks the car unavailable and no longer forSale or forRent
      *  - Saves a new Purchase with today's date
+     * Runs as a checkout of the car, so of several concurrent buyers of the
+     * same car exactly one wins.
      */
     public Purchase buyCar(Long carId,
                            String customerName,
                            String customerEmail,
                            String paymentMethod) {
+        // cheap rejection from the car cache before taking the car's lock
+        Car cached = carService.getCarById(carId)
+                .orElseThrow(() -> OperationRejectedException.carNotFound(carId));
+        if (!cached.isForSale()) {
+            throw OperationRejectedException.notForSale();
+        }
+
+        return checkout.execute(carId,
+                () -> createPurchase(carId, customerName, customerEmail, paymentMethod),
+                saved -> {
+                    events.publishEvent(CarChangedEvent.saved(saved.getCar()));
+                    events.publishEvent(PurchaseChangedEvent.created(saved));
+                });
+    }
+
+    private Purchase createPurchase(Long carId,
+                                    String customerName,
+                                    String customerEmail,
+                                    String paymentMethod) {
+        // the car row is modified below, so its @Version guards this checkout
         Car car = carRepo.findById(carId)
-                .orElseThrow(() -> new IllegalArgumentException("Car not found: " + carId));
+                .orElseThrow(() -> OperationRejectedException.carNotFound(carId));
 
         if (!car.isForSale()) {
-            throw new IllegalArgumentException("Car is not for sale");
+            throw OperationRejectedException.notForSale();
         }
 
         Purchase p = new Purchase();
@@ -57,20 +92,30 @@ public class PurchaseService {
         p.setAmount(car.getPrice());
         p.setPaymentMethod(paymentMethod);
 
-        // mark car sold/unavailable
+        // mark car sold/unavailable; a sold car also leaves the rental fleet
         car.setAvailable(false);
         car.setForSale(false);
+        car.setForRent(false);
         carRepo.save(car);
 
         return purchaseRepo.save(p);
     }
 
-    /** Delete a purchase; returns true if existed */
+    /**
+     * Delete a purchase; returns true if existed. Of concurrent deletes of
+     * the same purchase only the one whose delete removed the row publishes,
+     * so its amount leaves the stats once.
+     */
     public boolean deletePurchase(Long id) {
-        if (!purchaseRepo.existsById(id)) {
+        Optional<Purchase> existing = purchaseRepo.findById(id);
+        if (existing.isEmpty()) {
+            return false;
+        }
+        PurchaseChangedEvent.Snapshot before = PurchaseChangedEvent.Snapshot.of(existing.get());
+        if (purchaseRepo.deleteOne(id) == 0) {
             return false;
         }
-        purchaseRepo.deleteById(id);
+        events.publishEvent(PurchaseChangedEvent.deleted(id, before));
         return true;
     }
 }
@@ -0,0 +1,242 @@
+package luxuryride.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import luxuryride.dto.PendingHold;
+import luxuryride.entities.Reservation;
+import luxuryride.events.ReservationChangedEvent;
+import luxuryride.index.AvailabilityIndex;
+import luxuryride.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels PENDING reservations whose hold ran out, releasing their dates.
+ *
+ * Every PENDING reservation has a deadline ({@code createdAt} plus the hold
+ * time) in a DelayQueue. A scheduled job drains whatever is due in batches
+ * and expires each batch with one bulk UPDATE, guarded by
+ * {@code status = PENDING}, so a reservation confirmed at the last moment
+ * is left alone. The batch runs under the checkout stripes of its cars, so
+ * it can't interleave with a rental or an update of the same car.
+ *
+ * Holds are re-armed from the table at startup. Reservations that leave
+ * PENDING stay in the queue but are dropped when they come due. When a
+ * batch fails, its holds are re-armed {@code expiry-retry} later and the
+ * run stops there.
+ */
+@Component
+public class ReservationExpiry {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationExpiry.class);
+
+    private final ReservationRepository reservationRepo;
+    private final AvailabilityIndex availability;
+    private final CarCheckout checkout;
+    private final ApplicationEventPublisher events;
+    private final Duration holdTime;
+    private final int batchSize;
+    private final Duration retryDelay;
+
+    private final DelayQueue<Hold> queue = new DelayQueue<>();
+    // the live hold of each PENDING reservation; queue entries not in here are stale
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+
+    private final Counter expired;
+    private final Timer batches;
+
+    public ReservationExpiry(ReservationRepository reservationRepo,
+                             AvailabilityIndex availability,
+                             CarCheckout checkout,
+                             ApplicationEventPublisher events,
+                             MeterRegistry registry,
+                             @Value("${luxuryride.reservations.pending-hold:30m}") Duration holdTime,
+                             @Value("${luxuryride.reservations.expiry-batch-size:500}") int batchSize,
+                             @Value("${luxuryride.reservations.expiry-retry:1m}") Duration retryDelay) {
+        this.reservationRepo = reservationRepo;
+        this.availability = availability;
+        this.checkout = checkout;
+        this.events = events;
+        this.holdTime = holdTime;
+        this.batchSize = Math.max(1, batchSize);
+        this.retryDelay = retryDelay;
+        this.expired = Counter.builder("luxuryride.reservations.expired")
+                .description("PENDING reservations cancelled because their hold ran out")
+                .register(registry);
+        this.batches = Timer.builder("luxuryride.reservations.expiry.batch")
+                .description("Time to expire one batch of PENDING reservations")
+                .register(registry);
+        Gauge.builder("luxuryride.reservations.pending.holds", holds, Map::size)
+                .description("PENDING reservations waiting for their hold to run out")
+                .register(registry);
+    }
+
+    /** Re-arm the holds of every PENDING reservation; overdue ones expire on the next run. */
+    @PostConstruct
+    void load() {
+        queue.clear();
+        holds.clear();
+        Instant now = Instant.now();
+        for (PendingHold pending : reservationRepo.findHoldsByStatus(Reservation.Status.PENDING)) {
+            // rows from before createdAt existed get a full hold from now
+            Instant since = pending.createdAt() != null ? pending.createdAt() : now;
+            arm(pending.reservationId(), pending.carId(), since.plus(holdTime));
+        }
+    }
+
+    /** Track new PENDING reservations, forget ones that left PENDING. */
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationChangedEvent.Snapshot after = event.after();
+        if (after != null && after.status() == Reservation.Status.PENDING) {
+            if (!holds.containsKey(event.reservationId())) {
+                arm(event.reservationId(), after.carId(), Instant.now().plus(holdTime));
+            }
+        } else {
+            holds.remove(event.reservationId());
+        }
+    }
+
+    /**
+     * Expire every hold that is due, a batch at a time.
+     * @return the number of reservations cancelled
+     */
+    @Scheduled(fixedDelayString = "${luxuryride.reservations.expiry-interval:10s}")
+    public int expireDue() {
+        int total = 0;
+        List<Hold> due = new ArrayList<>(batchSize);
+        while (queue.drainTo(due, batchSize) > 0) {
+            // skip holds of reservations that were confirmed, cancelled or deleted meanwhile
+            Map<Long, Long> carByReservation = new HashMap<>();
+            for (Hold hold : due) {
+                if (holds.remove(hold.reservationId(), hold)) {
+                    carByReservation.put(hold.reservationId(), hold.carId());
+                }
+            }
+            due.clear();
+            if (carByReservation.isEmpty()) {
+                continue;
+            }
+            try {
+                total += batches.record(() -> expire(carByReservation));
+            } catch (RuntimeException ex) {
+                // rolled back: nothing was cancelled, so the holds must not be lost
+                log.warn("Could not expire {} pending reservations, retrying in {}",
+                        carByReservation.size(), retryDelay, ex);
+                Instant retryAt = Instant.now().plus(retryDelay);
+                carByReservation.forEach((reservationId, carId) -> rearm(reservationId, carId, retryAt));
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Expired {} pending reservations after a hold of {}", total, holdTime);
+        }
+        return total;
+    }
+
+    /** Number of PENDING reservations being tracked. */
+    public int size() {
+        return holds.size();
+    }
+
+    private int expire(Map<Long, Long> carByReservation) {
+        List<ReservationChangedEvent> cancelled = checkout.executeAll(carByReservation.values(), () -> {
+            List<Reservation> pending = reservationRepo.findByIdInAndStatus(
+                    carByReservation.keySet(), Reservation.Status.PENDING);
+            List<ReservationChangedEvent> changes = new ArrayList<>(pending.size());
+            for (Reservation r : pending) {
+                ReservationChangedEvent.Snapshot before = ReservationChangedEvent.Snapshot.of(r);
+                changes.add(new ReservationChangedEvent(r.getId(), before, new ReservationChangedEvent.Snapshot(
+                        before.carId(), before.startDate(), before.endDate(), before.totalPrice(),
+                        Reservation.Status.CANCELLED)));
+            }
+            if (!changes.isEmpty()) {
+                List<Long> ids = changes.stream().map(ReservationChangedEvent::reservationId).toList();
+                int updated = reservationRepo.updateStatus(ids, Reservation.Status.PENDING, Reservation.Status.CANCELLED);
+                if (updated != changes.size()) {
+                    // some left PENDING after the select, through a path outside the car's stripe:
+                    // release and announce only the ones that are cancelled now
+                    Set<Long> nowCancelled = new HashSet<>(
+                            reservationRepo.findIdsByIdInAndStatus(ids, Reservation.Status.CANCELLED));
+                    changes.removeIf(change -> !nowCancelled.contains(change.reservationId()));
+                }
+            }
+            return changes;
+        }, changes -> changes.forEach(change -> {
+            availability.remove(change.reservationId());
+            events.publishEvent(change);
+        }));
+        expired.increment(cancelled.size());
+        return cancelled.size();
+    }
+
+    private void arm(Long reservationId, Long carId, Instant deadline) {
+        Hold hold = new Hold(reservationId, carId, deadline);
+        holds.put(reservationId, hold);
+        queue.add(hold);
+    }
+
+    /**
+     * Arm a hold again unless it was re-armed meanwhile. One that left
+     * PENDING meanwhile is left alone by the guarded update when it comes due.
+     */
+    private void rearm(Long reservationId, Long carId, Instant deadline) {
+        Hold hold = new Hold(reservationId, carId, deadline);
+        if (holds.putIfAbsent(reservationId, hold) == null) {
+            queue.add(hold);
+        }
+    }
+
+    /** A reservation's deadline. Identity matters: a re-armed reservation gets a new Hold. */
+    private static final class Hold implements Delayed {
+
+        private final Long reservationId;
+        private final Long carId;
+        private final Instant deadline;
+
+        Hold(Long reservationId, Long carId, Instant deadline) {
+            this.reservationId = reservationId;
+            this.carId = carId;
+            this.deadline = deadline;
+        }
+
+        Long reservationId() {
+            return reservationId;
+        }
+
+        Long carId() {
+            return carId;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), deadline));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return deadline.compareTo(((Hold) other).deadline);
+        }
+    }
+}
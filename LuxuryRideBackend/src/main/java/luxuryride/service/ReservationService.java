@@ -1,29 +1,87 @@
 package luxuryride.service;
 
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.FleetOccupancy;
+import luxuryride.dto.ReservationSlot;
+import luxuryride.dto.ReservationView;
 import luxuryride.entities.Car;
 import luxuryride.entities.Reservation;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.ReservationChangedEvent;
+import luxuryride.index.AvailabilityIndex;
+import luxuryride.index.OccupancyStore;
+import luxuryride.pricing.PricingEngine;
 import luxuryride.repository.CarRepository;
 import luxuryride.repository.ReservationRepository;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ReservationService {
+
+    /** Longest range the occupancy calendar serves: two years. */
+    static final int MAX_OCCUPANCY_DAYS = 731;
+
     private final ReservationRepository reservationRepo;
     private final CarRepository carRepo;
+    private final AvailabilityIndex availability;
+    private final OccupancyStore occupancy;
+    private final CarCheckout checkout;
+    private final CarService carService;
+    private final PricingEngine pricing;
+    private final ApplicationEventPublisher events;
 
     public ReservationService(ReservationRepository reservationRepo,
-                              CarRepository carRepo) {
+                              CarRepository carRepo,
+                              AvailabilityIndex availability,
+                              OccupancyStore occupancy,
+                              CarCheckout checkout,
+                              CarService carService,
+                              PricingEngine pricing,
+                              ApplicationEventPublisher events) {
         this.reservationRepo = reservationRepo;
         this.carRepo = carRepo;
+        this.availability = availability;
+        this.occupancy = occupancy;
+        this.checkout = checkout;
+        this.carService = carService;
+        this.pricing = pricing;
+        this.events = events;
+    }
+
+    /**
+     * Warm the availability index and the occupancy store from the rentable
+     * cars and every reservation that still holds its car.
+     */
+    @PostConstruct
+    void loadAvailabilityIndex() {
+        List<CarSummary> rentable = carRepo.findRentableSummaries();
+        List<ReservationSlot> slots = reservationRepo.findSlotsByStatusNot(Reservation.Status.CANCELLED);
+        availability.load(rentable, slots);
+        occupancy.load(rentable, slots);
     }
 
-    /** Fetch all reservations */
-    public List<Reservation> findAll() {
-        return reservationRepo.findAll();
+    /** Fetch all reservations as flat rows (one query, no Car entities) */
+    public List<ReservationView> findAll() {
+        return reservationRepo.findAllViews();
+    }
+
+    /**
+     * Booked days per car over [from, to], at most {@link #MAX_OCCUPANCY_DAYS}.
+     * Answered from the occupancy store only.
+     */
+    public FleetOccupancy getOccupancy(LocalDate from, LocalDate to) {
+        checkPeriod(from, to);
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_OCCUPANCY_DAYS) {
+            throw OperationRejectedException.invalidPeriod();
+        }
+        return occupancy.occupancy(from, to);
     }
 
     /** Fetch one reservation by ID */
@@ -33,25 +91,58 @@ public class ReservationService {
 
     /**
      * Rent a car:
-     *  - Checks existence & availability
+     *  - Checks existence, the forRent flag & that the dates are free
      *  - Calculates totalPrice
-     *  - Marks the car unavailable
-     *  - Saves the new Reservation with status PENDING
+     *  - Saves the new Reservation with status PENDING (cancelled by
+     *    ReservationExpiry unless confirmed within the hold time)
+     *  - Books the dates in the availability index
+     * Runs as a checkout of the car, so concurrent rentals of the same car
+     * have a single winner while other cars proceed in parallel.
      */
     public Reservation rentCar(Long carId,
                                String customerName,
                                String customerEmail,
                                LocalDate start,
                                LocalDate end) {
-        Car car = carRepo.findById(carId)
-                .orElseThrow(() -> new IllegalArgumentException("Car not found: " + carId));
+        pricing.checkPeriod(start, end);
+
+        // cheap rejection from the car cache and the index before taking the car's lock
+        Car cached = carService.getCarById(carId)
+                .orElseThrow(() -> OperationRejectedException.carNotFound(carId));
+        if (!cached.isForRent()) {
+            throw OperationRejectedException.notForRent();
+        }
+        if (!availability.isFree(carId, start, end)) {
+            throw OperationRejectedException.notAvailable();
+        }
+
+        return checkout.execute(carId,
+                () -> createReservation(carId, customerName, customerEmail, start, end),
+                saved -> {
+                    availability.put(saved.getId(), carId, start, end);
+                    // the checkout bumped the car's version
+                    events.publishEvent(CarChangedEvent.saved(saved.getCar()));
+                    events.publishEvent(ReservationChangedEvent.created(saved));
+                });
+    }
+
+    private Reservation createReservation(Long carId,
+                                          String customerName,
+                                          String customerEmail,
+                                          LocalDate start,
+                                          LocalDate end) {
+        Car car = carRepo.findForCheckout(carId)
+                .orElseThrow(() -> OperationRejectedException.carNotFound(carId));
 
-        if (!car.isAvailable()) {
-            throw new IllegalArgumentException("Car is not available");
+        if (!car.isForRent()) {
+            throw OperationRejectedException.notForRent();
+        }
+        if (!availability.isFree(carId, start, end)) {
+            throw OperationRejectedException.notAvailable();
         }
 
-        long days = end.toEpochDay() - start.toEpochDay() + 1;
-        double total = days * car.getPrice();  // or getRentalPricePerDay()
+        // priced from the locked row, not the cached rates the quotes use
+        double total = pricing.quote(CarSummary.of(car, false), start, end).totalPrice();
 
         // create and populate
         Reservation r = new Reservation();
@@ -63,23 +154,47 @@ public class ReservationService {
         r.setTotalPrice(total);
         r.setStatus(Reservation.Status.PENDING);
 
-        car.setAvailable(false);
-        carRepo.save(car);
-
         return reservationRepo.save(r);
     }
 
     /**
      * Update only the updatable fields of an existing reservation.
+     * Moving a reservation onto dates held by another one is rejected;
+     * cancelling it releases its dates.
      */
     public Optional<Reservation> updateReservation(Long id, Reservation updated) {
-        return reservationRepo.findById(id).map(r -> {
-            r.setStartDate(updated.getStartDate());
-            r.setEndDate(updated.getEndDate());
-            r.setTotalPrice(updated.getTotalPrice());
-            r.setStatus(updated.getStatus());
-            return reservationRepo.save(r);
-        });
+        boolean cancelled = updated.getStatus() == Reservation.Status.CANCELLED;
+        if (!cancelled) {
+            pricing.checkPeriod(updated.getStartDate(), updated.getEndDate());
+        }
+        return reservationRepo.findCarIdById(id).flatMap(carId -> checkout.execute(carId,
+                () -> reservationRepo.findById(id).map(r -> {
+                    if (!cancelled) {
+                        if (!availability.isFree(carId, updated.getStartDate(), updated.getEndDate(), id)) {
+                            throw OperationRejectedException.notAvailable();
+                        }
+                        // moving dates is a checkout of the car like a new rental
+                        carRepo.findForCheckout(carId);
+                    }
+                    ReservationChangedEvent.Snapshot before = ReservationChangedEvent.Snapshot.of(r);
+                    r.setStartDate(updated.getStartDate());
+                    r.setEndDate(updated.getEndDate());
+                    r.setTotalPrice(updated.getTotalPrice());
+                    r.setStatus(updated.getStatus());
+                    return new Change(before, reservationRepo.save(r));
+                }),
+                opt -> opt.ifPresent(change -> {
+                    Reservation saved = change.after();
+                    if (cancelled) {
+                        availability.remove(id);
+                    } else {
+                        availability.put(id, carId, saved.getStartDate(), saved.getEndDate());
+                    }
+                    events.publishEvent(ReservationChangedEvent.updated(change.before(), saved));
+                })).map(Change::after));
+    }
+
+    private record Change(ReservationChangedEvent.Snapshot before, Reservation after) {
     }
 
     /**
@@ -87,10 +202,24 @@ public class ReservationService {
      * @return true if deleted, false if not found.
      */
     public boolean deleteReservation(Long id) {
-        if (!reservationRepo.existsById(id)) {
-            return false;
+        return reservationRepo.findCarIdById(id)
+                .map(carId -> checkout.execute(carId,
+                        () -> reservationRepo.findById(id).map(r -> {
+                            ReservationChangedEvent.Snapshot before = ReservationChangedEvent.Snapshot.of(r);
+                            reservationRepo.delete(r);
+                            return before;
+                        }),
+                        deleted -> deleted.ifPresent(before -> {
+                            availability.remove(id);
+                            events.publishEvent(ReservationChangedEvent.deleted(id, before));
+                        })))
+                .map(Optional::isPresent)
+                .orElse(false);
+    }
+
+    private static void checkPeriod(LocalDate start, LocalDate end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            throw OperationRejectedException.invalidPeriod();
         }
-        reservationRepo.deleteById(id);
-        return true;
     }
 }
@@ -0,0 +1,171 @@
+package luxuryride.stats;
+
+import luxuryride.dto.AdminStats;
+import luxuryride.dto.CarStatus;
+import luxuryride.dto.FleetCounts;
+import luxuryride.dto.RevenueTotals;
+import luxuryride.entities.Reservation;
+import luxuryride.events.PurchaseChangedEvent;
+import luxuryride.events.ReservationChangedEvent;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Daily, monthly and all-time totals plus fleet counts, kept up to date by
+ * adding and subtracting single rows. Amounts are held in cents so that
+ * repeated add/subtract doesn't drift. Not thread-safe: StatsService
+ * guards it.
+ */
+final class Rollup {
+
+    private static final Reservation.Status[] STATUSES = Reservation.Status.values();
+
+    private final Map<LocalDate, Totals> days = new HashMap<>();
+    private final Map<YearMonth, Totals> months = new HashMap<>();
+    private final Totals allTime = new Totals();
+    private final long[] reservationsByStatus = new long[STATUSES.length];
+
+    /** Last known flags per car, so an update can be turned into a delta. */
+    private final Map<Long, CarStatus> cars = new HashMap<>();
+    private long available;
+    private long forRent;
+    private long forSale;
+
+    private final Instant builtAt;
+
+    Rollup(Instant builtAt) {
+        this.builtAt = builtAt;
+    }
+
+    void purchase(PurchaseChangedEvent.Snapshot p, int sign) {
+        if (p != null) {
+            addPurchases(p.purchaseDate(), sign, sign * cents(p.amount()));
+        }
+    }
+
+    void reservation(ReservationChangedEvent.Snapshot r, int sign) {
+        if (r != null) {
+            addReservations(r.startDate(), r.status(), sign, sign * cents(r.totalPrice()));
+        }
+    }
+
+    void addPurchases(LocalDate day, long count, long amountCents) {
+        for (Totals totals : bucketsFor(day)) {
+            totals.purchases += count;
+            totals.purchaseCents += amountCents;
+        }
+        dropIfEmpty(day);
+    }
+
+    void addReservations(LocalDate day, Reservation.Status status, long count, long amountCents) {
+        // reservations are created PENDING; rows without a status count as such
+        reservationsByStatus[(status != null ? status : Reservation.Status.PENDING).ordinal()] += count;
+        if (status == Reservation.Status.CANCELLED) {
+            return;
+        }
+        for (Totals totals : bucketsFor(day)) {
+            totals.reservations += count;
+            totals.reservationCents += amountCents;
+        }
+        dropIfEmpty(day);
+    }
+
+    /** Record the current flags of a car, or its removal when {@code car} is null. */
+    void car(Long id, CarStatus car) {
+        CarStatus previous = car != null ? cars.put(id, car) : cars.remove(id);
+        count(previous, -1);
+        count(car, 1);
+    }
+
+    private void count(CarStatus car, int sign) {
+        if (car == null) {
+            return;
+        }
+        if (car.available()) {
+            available += sign;
+        }
+        if (car.forRent()) {
+            forRent += sign;
+        }
+        if (car.forSale()) {
+            forSale += sign;
+        }
+    }
+
+    AdminStats stats(LocalDate today) {
+        YearMonth month = YearMonth.from(today);
+        Map<Reservation.Status, Long> byStatus = new EnumMap<>(Reservation.Status.class);
+        for (Reservation.Status status : STATUSES) {
+            byStatus.put(status, reservationsByStatus[status.ordinal()]);
+        }
+        return new AdminStats(
+                new FleetCounts(cars.size(), available, forRent, forSale),
+                byStatus,
+                allTime.view("all"),
+                day(today),
+                month(month),
+                month(month.minusMonths(1)),
+                builtAt);
+    }
+
+    RevenueTotals day(LocalDate day) {
+        return days.getOrDefault(day, Totals.EMPTY).view(day.toString());
+    }
+
+    RevenueTotals month(YearMonth month) {
+        return months.getOrDefault(month, Totals.EMPTY).view(month.toString());
+    }
+
+    private Totals[] bucketsFor(LocalDate day) {
+        if (day == null) {
+            return new Totals[]{allTime};
+        }
+        return new Totals[]{
+                days.computeIfAbsent(day, d -> new Totals()),
+                months.computeIfAbsent(YearMonth.from(day), m -> new Totals()),
+                allTime};
+    }
+
+    private void dropIfEmpty(LocalDate day) {
+        if (day == null) {
+            return;
+        }
+        if (days.get(day) instanceof Totals totals && totals.isEmpty()) {
+            days.remove(day);
+        }
+        YearMonth month = YearMonth.from(day);
+        if (months.get(month) instanceof Totals totals && totals.isEmpty()) {
+            months.remove(month);
+        }
+    }
+
+    static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static final class Totals {
+
+        static final Totals EMPTY = new Totals();
+
+        long purchases;
+        long purchaseCents;
+        long reservations;
+        long reservationCents;
+
+        boolean isEmpty() {
+            return purchases == 0 && reservations == 0;
+        }
+
+        RevenueTotals view(String period) {
+            return new RevenueTotals(period,
+                    purchases, purchaseCents / 100.0,
+                    reservations, reservationCents / 100.0,
+                    (purchaseCents + reservationCents) / 100.0);
+        }
+    }
+}
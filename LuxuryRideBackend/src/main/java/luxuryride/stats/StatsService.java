@@ -0,0 +1,143 @@
+package luxuryride.stats;
+
+import jakarta.annotation.PostConstruct;
+import luxuryride.dto.AdminStats;
+import luxuryride.dto.CarStatus;
+import luxuryride.dto.DailyTotal;
+import luxuryride.dto.RevenueTotals;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import luxuryride.events.PurchaseChangedEvent;
+import luxuryride.events.ReservationChangedEvent;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dashboard aggregates (revenue per day and month, reservations by status,
+ * fleet counts) maintained incrementally from the change events published
+ * by the services, so reading them never touches the database.
+ *
+ * A rebuild recomputes everything with a few GROUP BY queries and swaps
+ * the result in; it runs at startup, nightly and on demand. A change that
+ * commits while a rebuild is reading may be counted twice or not at all
+ * until the next rebuild.
+ */
+@Service
+public class StatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsService.class);
+
+    static final int MAX_DAYS = 366;
+    static final int MAX_MONTHS = 120;
+
+    private final CarRepository carRepo;
+    private final PurchaseRepository purchaseRepo;
+    private final ReservationRepository reservationRepo;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    private Rollup rollup = new Rollup(Instant.EPOCH);
+
+    public StatsService(CarRepository carRepo,
+                        PurchaseRepository purchaseRepo,
+                        ReservationRepository reservationRepo) {
+        this.carRepo = carRepo;
+        this.purchaseRepo = purchaseRepo;
+        this.reservationRepo = reservationRepo;
+    }
+
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+
+    public synchronized AdminStats getStats() {
+        return rollup.stats(LocalDate.now(clock));
+    }
+
+    /** One entry per day of [from, to], empty days included. */
+    public synchronized List<RevenueTotals> getDaily(LocalDate from, LocalDate to) {
+        checkRange(from != null && to != null ? ChronoUnit.DAYS.between(from, to) : -1, MAX_DAYS);
+        List<RevenueTotals> result = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            result.add(rollup.day(day));
+        }
+        return result;
+    }
+
+    /** One entry per month of [from, to], empty months included. */
+    public synchronized List<RevenueTotals> getMonthly(YearMonth from, YearMonth to) {
+        checkRange(from != null && to != null ? ChronoUnit.MONTHS.between(from, to) : -1, MAX_MONTHS);
+        List<RevenueTotals> result = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            result.add(rollup.month(month));
+        }
+        return result;
+    }
+
+    /** Recompute every aggregate from the database, for reconciliation. */
+    @Scheduled(cron = "${luxuryride.stats.rebuild-cron:0 0 3 * * *}")
+    public AdminStats rebuild() {
+        long started = System.nanoTime();
+        Rollup fresh = new Rollup(Instant.now(clock));
+        for (CarStatus car : carRepo.findStatuses()) {
+            fresh.car(car.id(), car);
+        }
+        for (DailyTotal day : purchaseRepo.findDailyTotals()) {
+            fresh.addPurchases(day.day(), day.count(), Rollup.cents(amount(day)));
+        }
+        for (DailyTotal day : reservationRepo.findDailyTotals()) {
+            fresh.addReservations(day.day(), day.status(), day.count(), Rollup.cents(amount(day)));
+        }
+        synchronized (this) {
+            rollup = fresh;
+        }
+        log.info("Rebuilt stats rollups in {} ms", (System.nanoTime() - started) / 1_000_000);
+        return getStats();
+    }
+
+    @EventListener
+    public synchronized void onCarChanged(CarChangedEvent event) {
+        rollup.car(event.carId(), event.isDeleted() ? null : CarStatus.of(event.car()));
+    }
+
+    @EventListener
+    public synchronized void onCarsImported(CarsImportedEvent event) {
+        event.cars().forEach(car -> rollup.car(car.id(), CarStatus.of(car)));
+    }
+
+    @EventListener
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        rollup.reservation(event.before(), -1);
+        rollup.reservation(event.after(), 1);
+    }
+
+    @EventListener
+    public synchronized void onPurchaseChanged(PurchaseChangedEvent event) {
+        rollup.purchase(event.before(), -1);
+        rollup.purchase(event.after(), 1);
+    }
+
+    private static double amount(DailyTotal day) {
+        return day.amount() != null ? day.amount() : 0;
+    }
+
+    private static void checkRange(long length, int max) {
+        if (length < 0 || length >= max) {
+            throw new IllegalArgumentException("Range must be ordered and at most " + max + " long");
+        }
+    }
+}
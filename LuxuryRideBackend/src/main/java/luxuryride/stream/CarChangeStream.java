@@ -0,0 +1,337 @@
+package luxuryride.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import luxuryride.dto.CarDelta;
+import luxuryride.dto.CarSummary;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-sent events of car changes ({@code GET /api/cars/stream}), so the
+ * rentals and sales pages learn that a car was rented, sold, repriced or
+ * removed without polling the catalog.
+ *
+ * {@link CarChangedEvent}s are queued to one publisher thread, which drops
+ * those that change none of the streamed fields (see {@link CarDelta}),
+ * encodes each remaining one as an SSE frame once, and offers the same
+ * bytes to every subscriber's bounded buffer. Each subscriber is written by
+ * its own request's async thread (virtual), which parks while its buffer
+ * is empty and sends a heartbeat comment every {@code heartbeat}. An idle
+ * subscriber costs that parked thread and an empty queue.
+ *
+ * A subscriber whose buffer is full is evicted: its stream ends, and
+ * EventSource reconnects with the id of the last event it got. The last
+ * {@code replay-size} frames are kept to catch it up; when it missed more
+ * than that (or more than fits its buffer) it gets a {@code reset} event
+ * instead and should refetch the catalog. Streams also end after
+ * {@code timeout} and reconnect the same way. A batch of imported cars
+ * ({@link CarsImportedEvent}) is sent as one {@code reset} too, rather than
+ * a frame per car that would overflow every buffer.
+ */
+@Component
+public class CarChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(CarChangeStream.class);
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final long heartbeatNanos;
+    private final Duration timeout;
+    private final byte[] retry;
+
+    // CarChangedEvents and CarsImportedEvents, in the order they were committed
+    private final BlockingQueue<Object> changes = new LinkedBlockingQueue<>();
+    // the streamed fields of every car as last published; publisher thread and load only
+    private final Map<Long, CarDelta> published = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // orders publishing against subscribing, so a new subscriber neither misses nor repeats a frame
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Frame> recent = new ArrayDeque<>();
+    // starts from the clock so ids from before a restart read as too old, not as current
+    private long lastId = System.currentTimeMillis();
+    private Thread publisher;
+
+    private final Counter sent;
+    private final Counter evicted;
+
+    public CarChangeStream(ObjectMapper objectMapper,
+                           MeterRegistry registry,
+                           @Value("${luxuryride.stream.buffer-size:256}") int bufferSize,
+                           @Value("${luxuryride.stream.replay-size:1024}") int replaySize,
+                           @Value("${luxuryride.stream.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${luxuryride.stream.heartbeat:15s}") Duration heartbeat,
+                           @Value("${luxuryride.stream.timeout:30m}") Duration timeout,
+                           @Value("${luxuryride.stream.retry:3s}") Duration retry) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.replaySize = Math.max(0, replaySize);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeout = timeout;
+        this.retry = ("retry: " + retry.toMillis() + "\n\n").getBytes(StandardCharsets.US_ASCII);
+
+        this.sent = Counter.builder("luxuryride.stream.events")
+                .description("Car change events published to the stream")
+                .register(registry);
+        this.evicted = Counter.builder("luxuryride.stream.evicted")
+                .description("Stream subscribers dropped for not keeping up")
+                .register(registry);
+        Gauge.builder("luxuryride.stream.subscribers", subscribers, Set::size)
+                .description("Open car change streams")
+                .register(registry);
+    }
+
+    /** One encoded event, shared by every subscriber it goes to. */
+    private record Frame(long id, byte[] bytes) {
+    }
+
+    @PostConstruct
+    void start() {
+        publisher = Thread.ofPlatform().name("car-stream").daemon().start(this::run);
+    }
+
+    /** Stop publishing and end every open stream. */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        publisher.interrupt();
+        publisher.join(1000);
+        subscribers.forEach(Subscriber::close);
+    }
+
+    /** The current state of every car, so changes that touch no streamed field are recognized. */
+    public void load(List<CarSummary> cars) {
+        published.clear();
+        cars.forEach(car -> published.put(car.id(), CarDelta.of(car)));
+    }
+
+    @EventListener
+    public void onCarChanged(CarChangedEvent event) {
+        changes.add(event);
+    }
+
+    @EventListener
+    public void onCarsImported(CarsImportedEvent event) {
+        changes.add(event);
+    }
+
+    /** How long a stream stays open before the client has to reconnect. */
+    public Duration timeout() {
+        return timeout;
+    }
+
+    /** Number of open streams. */
+    public int size() {
+        return subscribers.size();
+    }
+
+    /**
+     * Open a stream, caught up from {@code lastEventId} (the Last-Event-ID
+     * header of a reconnect) when given. Returns null when
+     * {@code max-subscribers} streams are already open.
+     */
+    public StreamingResponseBody subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscriber subscriber = new Subscriber();
+        lock.lock();
+        try {
+            catchUp(subscriber, lastEventId);
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return subscriber;
+    }
+
+    /** Replay what a reconnecting client missed, or tell it to start over. Holds the lock. */
+    private void catchUp(Subscriber subscriber, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        long seen;
+        try {
+            seen = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            seen = -1;
+        }
+        if (seen == lastId) {
+            return;
+        }
+        boolean inRing = !recent.isEmpty() && seen >= recent.peekFirst().id() - 1 && seen < lastId;
+        if (inRing && lastId - seen <= bufferSize) {
+            for (Frame frame : recent) {
+                if (frame.id() > seen) {
+                    subscriber.queue.add(frame);
+                }
+            }
+        } else {
+            subscriber.queue.add(new Frame(lastId, encode(lastId, "reset", "{}")));
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Object event;
+            try {
+                event = changes.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                if (event instanceof CarChangedEvent change) {
+                    publish(change);
+                } else if (event instanceof CarsImportedEvent imported) {
+                    publish(imported);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not stream car change {}", event, e);
+            }
+        }
+    }
+
+    private void publish(CarChangedEvent event) {
+        CarDelta delta;
+        if (event.isDeleted()) {
+            delta = CarDelta.deleted(event.carId());
+            published.remove(event.carId());
+        } else {
+            delta = CarDelta.of(event.car());
+            if (delta.equals(published.put(event.carId(), delta))) {
+                // a checkout or an edit of fields the pages don't show
+                return;
+            }
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        broadcast("car", data);
+    }
+
+    /** Many new cars at once: one reset, after which clients refetch the catalog. */
+    private void publish(CarsImportedEvent event) {
+        event.cars().forEach(car -> published.put(car.id(), CarDelta.of(car)));
+        broadcast("reset", "{}");
+    }
+
+    /** Encode one frame, keep it for replay and offer it to every subscriber. */
+    private void broadcast(String name, String data) {
+        List<Subscriber> slow = new ArrayList<>();
+        lock.lock();
+        try {
+            long id = ++lastId;
+            Frame frame = new Frame(id, encode(id, name, data));
+            recent.addLast(frame);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(frame)) {
+                    slow.add(subscriber);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Subscriber subscriber : slow) {
+            subscriber.close();
+            evicted.increment();
+        }
+        sent.increment();
+    }
+
+    private static byte[] encode(long id, String name, String data) {
+        return ("id: " + id + "\nevent: " + name + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One open stream. Closing it from any thread only flags it and drops
+     * its buffer; its writer notices after the write it is in (if any), so
+     * the publisher never waits on a client's socket.
+     */
+    private final class Subscriber implements StreamingResponseBody {
+
+        private final BlockingQueue<Frame> queue = new LinkedBlockingQueue<>(bufferSize);
+        private volatile boolean closed;
+        private volatile Thread writer;
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            Thread running = writer;
+            if (running != null) {
+                running.interrupt();
+            }
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            writer = Thread.currentThread();
+            long deadline = System.nanoTime() + timeout.toNanos();
+            List<Frame> batch = new ArrayList<>();
+            try {
+                out.write(retry);
+                out.flush();
+                long remaining;
+                while (!closed && (remaining = deadline - System.nanoTime()) > 0) {
+                    Frame next = queue.poll(Math.min(heartbeatNanos, remaining), TimeUnit.NANOSECONDS);
+                    if (closed) {
+                        break;
+                    }
+                    if (next == null) {
+                        out.write(HEARTBEAT);
+                    } else {
+                        // whatever else is already waiting goes out with the same flush
+                        batch.add(next);
+                        queue.drainTo(batch);
+                        for (Frame frame : batch) {
+                            out.write(frame.bytes());
+                        }
+                        batch.clear();
+                    }
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                // closed, or shutting down: end the response normally
+            } finally {
+                writer = null;
+                close();
+            }
+        }
+    }
+}
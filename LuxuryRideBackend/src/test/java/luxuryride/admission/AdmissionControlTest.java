@@ -0,0 +1,90 @@
+package luxuryride.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void bucketAllowsABurstThenRefillsAtTheRate() {
+        TokenBucket bucket = new TokenBucket(2, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        long wait = bucket.tryAcquire(0);
+        assertEquals(SECOND / 2, wait, "one token every half second");
+
+        assertEquals(0, bucket.tryAcquire(wait));
+        assertTrue(bucket.tryAcquire(wait) > 0);
+        // idle long enough to refill, but never beyond the burst
+        long later = 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void callerOverItsRateGets429() throws Exception {
+        AdmissionControl control = control(0.5, 2, 10);
+
+        assertTrue(admit(control, "alice").admitted);
+        assertTrue(admit(control, "alice").admitted);
+        Attempt third = admit(control, "alice");
+        assertFalse(third.admitted);
+        assertEquals(429, third.response.getStatus());
+        assertEquals("2", third.response.getHeader("Retry-After"));
+
+        assertTrue(admit(control, "bob").admitted, "buckets are per caller");
+        assertEquals(1.0, registry.get("luxuryride.admission.rejected").tag("reason", "rate_limited")
+                .counter().count());
+    }
+
+    @Test
+    void requestsBeyondTheConcurrencyLimitGet503() throws Exception {
+        AdmissionControl control = control(100, 100, 1);
+
+        Attempt running = admit(control, "alice");
+        assertTrue(running.admitted);
+        Attempt shed = admit(control, "bob");
+        assertFalse(shed.admitted);
+        assertEquals(503, shed.response.getStatus());
+        assertNotNull(shed.response.getHeader("Retry-After"));
+
+        control.afterCompletion(running.request, running.response, null, null);
+        // releasing twice must not create a permit
+        control.afterCompletion(running.request, running.response, null, null);
+        Attempt next = admit(control, "bob");
+        assertTrue(next.admitted);
+        assertFalse(admit(control, "carol").admitted);
+        assertEquals(1.0, registry.get("luxuryride.admission.in.flight").gauge().value());
+    }
+
+    private AdmissionControl control(double rate, int burst, int maxConcurrent) {
+        return new AdmissionControl(new CaffeineCacheManager(AdmissionControl.CACHE), registry,
+                rate, burst, maxConcurrent, Duration.ZERO);
+    }
+
+    private static Attempt admit(AdmissionControl control, String user) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reservations/rent");
+        request.setUserPrincipal(() -> user);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return new Attempt(request, response, control.preHandle(request, response, null));
+    }
+
+    private record Attempt(MockHttpServletRequest request, MockHttpServletResponse response, boolean admitted) {
+    }
+}
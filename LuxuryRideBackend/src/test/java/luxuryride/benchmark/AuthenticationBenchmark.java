@@ -0,0 +1,80 @@
+package luxuryride.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import luxuryride.security.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authentication: the BCrypt check HTTP Basic ran on
+ * every call, against verifying a bearer token, without and with the
+ * verified-token cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final String SECRET = "bHV4dXJ5cmlkZS1iZW5jaG1hcmstdG9rZW4tc2VjcmV0IQ==";
+
+    private PasswordEncoder encoder;
+    private String hash;
+    private TokenService uncached;
+    private TokenService cached;
+    private String uncachedToken;
+    private String cachedToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        hash = encoder.encode(PASSWORD);
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated("alice", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        // a cache that never keeps anything, so every verify does the HMAC
+        CaffeineCacheManager none = new CaffeineCacheManager(TokenService.CACHE);
+        none.setCaffeine(Caffeine.newBuilder().maximumSize(0));
+        uncached = new TokenService(none, SECRET, Duration.ofMinutes(15));
+        uncachedToken = uncached.issue(user).token();
+
+        cached = new TokenService(new CaffeineCacheManager(TokenService.CACHE), SECRET, Duration.ofMinutes(15));
+        cachedToken = cached.issue(user).token();
+    }
+
+    @Benchmark
+    public boolean bcryptPassword() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public Authentication tokenHmac() {
+        return uncached.verify(uncachedToken);
+    }
+
+    @Benchmark
+    public Authentication tokenCached() {
+        return cached.verify(cachedToken);
+    }
+}
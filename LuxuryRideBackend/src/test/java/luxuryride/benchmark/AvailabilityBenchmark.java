@@ -0,0 +1,83 @@
+package luxuryride.benchmark;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.ReservationSlot;
+import luxuryride.index.AvailabilityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation overlap checks against the {@link AvailabilityIndex}: the
+ * single-car check made by {@code rentCar}/{@code updateReservation}, and
+ * the fleet-wide scan behind {@code GET /api/cars/available}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2030, 1, 1);
+
+    @Param({"1000", "30000"})
+    public int cars;
+
+    @Param({"10"})
+    public int reservationsPerCar;
+
+    private AvailabilityIndex index;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        Random random = new Random(42);
+        List<CarSummary> summaries = new ArrayList<>(cars);
+        List<ReservationSlot> slots = new ArrayList<>(cars * reservationsPerCar);
+        long reservationId = 1;
+        for (long carId = 1; carId <= cars; carId++) {
+            summaries.add(new CarSummary(carId, "Brand" + (carId % 40), "Model" + carId, "P" + carId,
+                    50 + random.nextInt(500), true, true, false));
+            LocalDate cursor = ORIGIN.plusDays(random.nextInt(10));
+            for (int i = 0; i < reservationsPerCar; i++) {
+                LocalDate end = cursor.plusDays(1 + random.nextInt(7));
+                slots.add(new ReservationSlot(reservationId++, carId, cursor, end));
+                cursor = end.plusDays(10 + random.nextInt(30));
+            }
+        }
+        index = new AvailabilityIndex();
+        index.load(summaries, slots);
+    }
+
+    @Benchmark
+    public boolean isFree() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long carId = 1 + random.nextInt(cars);
+        LocalDate start = ORIGIN.plusDays(random.nextInt(365));
+        return index.isFree(carId, start, start.plusDays(random.nextInt(14)));
+    }
+
+    @Benchmark
+    public List<CarSummary> findFreeCars() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = ORIGIN.plusDays(random.nextInt(365));
+        return index.findFreeCars(start, start.plusDays(random.nextInt(14)));
+    }
+}
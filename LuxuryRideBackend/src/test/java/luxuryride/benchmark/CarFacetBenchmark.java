@@ -0,0 +1,63 @@
+package luxuryride.benchmark;
+
+import luxuryride.dto.CarFacets;
+import luxuryride.dto.CarFilter;
+import luxuryride.dto.CarSummary;
+import luxuryride.index.CarFacetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Facet counts from the {@link CarFacetIndex} behind {@code GET /api/cars/facets}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarFacetBenchmark {
+
+    private static final String[] BRANDS = {"Porsche", "Ferrari", "Lamborghini", "Bentley", "Aston Martin",
+            "Mercedes-Benz", "BMW", "Audi", "Maserati", "McLaren"};
+
+    @Param({"10000", "100000"})
+    public int cars;
+
+    private CarFacetIndex index;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        Random random = new Random(42);
+        List<CarSummary> summaries = new ArrayList<>(cars);
+        for (long id = 1; id <= cars; id++) {
+            summaries.add(new CarSummary(id, BRANDS[random.nextInt(BRANDS.length)], "Model", "P" + id,
+                    50 + random.nextInt(1500), random.nextBoolean(), random.nextBoolean(), random.nextBoolean()));
+        }
+        index = new CarFacetIndex(new double[]{100, 250, 500, 1000});
+        index.load(summaries);
+    }
+
+    @Benchmark
+    public CarFacets unfiltered() {
+        return index.facets(new CarFilter(null, null, null, null, null, null));
+    }
+
+    @Benchmark
+    public CarFacets flagsBrandAndPriceRange() {
+        return index.facets(new CarFilter(true, null, true, 180.0, 700.0, "BMW"));
+    }
+}
@@ -0,0 +1,73 @@
+package luxuryride.benchmark;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.index.CarSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Full-text queries against the {@link CarSearchIndex} behind {@code GET /api/cars/search}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarSearchBenchmark {
+
+    private static final String[] BRANDS = {"Porsche", "Ferrari", "Lamborghini", "Bentley", "Aston Martin",
+            "Mercedes-Benz", "BMW", "Audi", "Maserati", "McLaren"};
+    private static final String[] WORDS = {"red", "black", "white", "blue", "grey", "convertible", "coupe",
+            "roadster", "suv", "leather", "carbon", "ceramic", "brakes", "sport", "chrono", "package",
+            "panoramic", "roof", "heated", "seats", "navigation", "warranty", "service", "history"};
+
+    @Param({"10000"})
+    public int cars;
+
+    private CarSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        Random random = new Random(42);
+        List<CarSummary> summaries = new ArrayList<>(cars);
+        for (long id = 1; id <= cars; id++) {
+            StringBuilder description = new StringBuilder();
+            for (int i = 0; i < 12; i++) {
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            summaries.add(new CarSummary(id, BRANDS[random.nextInt(BRANDS.length)], "Model " + random.nextInt(300),
+                    "P" + id, 100 + random.nextInt(900), true, true, false, description.toString()));
+        }
+        index = new CarSearchIndex();
+        index.load(summaries);
+    }
+
+    @Benchmark
+    public List<CarSummary> singleWord() {
+        return index.search("porsche", 20);
+    }
+
+    @Benchmark
+    public List<CarSummary> threeWords() {
+        return index.search("convertible red porsche", 20);
+    }
+
+    @Benchmark
+    public List<CarSummary> prefix() {
+        return index.search("conv", 20);
+    }
+}
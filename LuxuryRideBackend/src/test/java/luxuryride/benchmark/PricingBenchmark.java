@@ -0,0 +1,95 @@
+package luxuryride.benchmark;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.Quote;
+import luxuryride.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rental quotes under a realistic rule set, over a spread of rental
+ * periods: computed for a car as {@code rentCar} and the availability
+ * search do, inside the precompiled rate table and (as every day's rules
+ * would cost without it) beyond it, and by car id as {@code GET
+ * /api/quotes} does, memoized.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final int PERIODS = 1024;
+    private static final String[] BRANDS = {"Ferrari", "Porsche", "Bentley", "Lamborghini", "BMW"};
+
+    private final LocalDate[] starts = new LocalDate[PERIODS];
+    private final LocalDate[] ends = new LocalDate[PERIODS];
+    private final LocalDate[] farStarts = new LocalDate[PERIODS];
+    private final LocalDate[] farEnds = new LocalDate[PERIODS];
+    private final CarSummary[] cars = new CarSummary[PERIODS];
+    private PricingEngine engine;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        engine = new PricingEngine(new CaffeineCacheManager(PricingEngine.CACHE),
+                "FRIDAY:1.1,SATURDAY:1.25,SUNDAY:1.25",
+                "06-15/09-15:1.3,12-20/01-05:1.5,04-01/04-20:1.1",
+                "Ferrari:1.1,Lamborghini:1.15,Bentley:1.05",
+                "3:0.05,7:0.10,28:0.25",
+                1461, 731);
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        // past the rate table, which ends three years from now
+        LocalDate far = today.plusYears(5);
+        List<CarSummary> fleet = new ArrayList<>();
+        for (int i = 0; i < PERIODS; i++) {
+            int offset = random.nextInt(365);
+            int length = random.nextInt(30);
+            starts[i] = today.plusDays(offset);
+            ends[i] = starts[i].plusDays(length);
+            farStarts[i] = far.plusDays(offset);
+            farEnds[i] = farStarts[i].plusDays(length);
+            cars[i] = new CarSummary((long) i, BRANDS[random.nextInt(BRANDS.length)], "Model", "P" + i,
+                    50 + random.nextInt(950), true, true, false, (Double) null);
+            fleet.add(cars[i]);
+        }
+        engine.load(fleet);
+    }
+
+    @Benchmark
+    public Quote quoteFromTable() {
+        int i = next++ & (PERIODS - 1);
+        return engine.quote(cars[i], starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public Quote quoteDayByDay() {
+        int i = next++ & (PERIODS - 1);
+        return engine.quote(cars[i], farStarts[i], farEnds[i]);
+    }
+
+    @Benchmark
+    public Quote memoizedQuoteById() {
+        int i = next++ & (PERIODS - 1);
+        return engine.quote(cars[i].id(), starts[i], ends[i]).orElseThrow();
+    }
+}
@@ -0,0 +1,148 @@
+package luxuryride.benchmark;
+
+import luxuryride.LuxuryRideApplication;
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.ReservationView;
+import luxuryride.entities.Car;
+import luxuryride.entities.Purchase;
+import luxuryride.entities.Reservation;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository reads against an embedded H2 database seeded with
+ * {@code cars} cars, each with a few reservations and every tenth one sold.
+ * The application context is started without the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int RESERVATIONS_PER_CAR = 3;
+    private static final int CUSTOMERS = 500;
+    private static final int PAGE_SIZE = 50;
+    private static final int SEED_BATCH = 1000;
+    private static final LocalDate ORIGIN = LocalDate.of(2030, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    @Param({"1000", "10000"})
+    public int cars;
+
+    private ConfigurableApplicationContext context;
+    private CarRepository carRepository;
+    private ReservationRepository reservationRepository;
+    private long firstCarId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(LuxuryRideApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        carRepository = context.getBean(CarRepository.class);
+        reservationRepository = context.getBean(ReservationRepository.class);
+        seed(context.getBean(PurchaseRepository.class),
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+    }
+
+    private void seed(PurchaseRepository purchaseRepository, TransactionTemplate tx) {
+        Random random = new Random(42);
+        for (int from = 0; from < cars; from += SEED_BATCH) {
+            int count = Math.min(SEED_BATCH, cars - from);
+            tx.executeWithoutResult(status -> {
+                List<Car> batch = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    boolean sold = random.nextInt(10) == 0;
+                    batch.add(new Car(null, "Brand" + random.nextInt(40), "Model" + random.nextInt(500),
+                            "P" + random.nextInt(1_000_000), 50 + random.nextInt(950),
+                            !sold, !sold, false, "Seeded car"));
+                }
+                List<Reservation> reservations = new ArrayList<>();
+                List<Purchase> purchases = new ArrayList<>();
+                for (Car car : carRepository.saveAll(batch)) {
+                    if (!car.isForRent()) {
+                        purchases.add(new Purchase(null, car, "Buyer", customer(random),
+                                ORIGIN.minusDays(random.nextInt(365)), car.getPrice() * 300, "CARD"));
+                        continue;
+                    }
+                    LocalDate cursor = ORIGIN.plusDays(random.nextInt(30));
+                    for (int r = 0; r < RESERVATIONS_PER_CAR; r++) {
+                        LocalDate end = cursor.plusDays(1 + random.nextInt(7));
+                        reservations.add(new Reservation(null, car, "Renter", customer(random),
+                                cursor, end, car.getPrice(), Reservation.Status.CONFIRMED));
+                        cursor = end.plusDays(5 + random.nextInt(30));
+                    }
+                }
+                reservationRepository.saveAll(reservations);
+                purchaseRepository.saveAll(purchases);
+            });
+        }
+        firstCarId = carRepository.findSummaryPage(0, null, null, null, null, null, null, Limit.of(1))
+                .get(0).id();
+    }
+
+    private static String customer(Random random) {
+        return "customer" + random.nextInt(CUSTOMERS) + "@example.com";
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Car> carById() {
+        return carRepository.findById(firstCarId + ThreadLocalRandom.current().nextInt(cars));
+    }
+
+    @Benchmark
+    public List<CarSummary> rentableCatalogPage() {
+        long after = firstCarId + ThreadLocalRandom.current().nextInt(cars);
+        return carRepository.findSummaryPage(after, true, null, null, null, null, null, Limit.of(PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<CarSummary> brandCatalogPage() {
+        String brand = "Brand" + ThreadLocalRandom.current().nextInt(40);
+        return carRepository.findSummaryPage(0, null, null, null, null, null, brand, Limit.of(PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<ReservationView> customerReservationHistory() {
+        String email = "customer" + ThreadLocalRandom.current().nextInt(CUSTOMERS) + "@example.com";
+        return reservationRepository.findHistoryPage(email, LATEST, Long.MAX_VALUE, Limit.of(20));
+    }
+}
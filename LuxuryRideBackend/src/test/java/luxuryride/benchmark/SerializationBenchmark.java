@@ -0,0 +1,80 @@
+package luxuryride.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import luxuryride.dto.CarSummary;
+import luxuryride.entities.Car;
+import luxuryride.entities.Purchase;
+import luxuryride.entities.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the payloads returned by the API, with an
+ * ObjectMapper configured like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectWriter writer;
+    private Car car;
+    private CarSummary summary;
+    private Reservation reservation;
+    private Purchase purchase;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        car = new Car(42L, "Porsche", "911 Carrera", "AA-042", 350.0, true, true, false,
+                "Guards red, sport chrono package, ceramic brakes, full service history.");
+        car.setVersion(7L);
+        summary = CarSummary.of(car, false);
+        LocalDate start = LocalDate.of(2030, 7, 1);
+        reservation = new Reservation(1001L, car, "Alice Example", "alice@example.com",
+                start, start.plusDays(4), 1750.0, Reservation.Status.CONFIRMED);
+        purchase = new Purchase(2001L, car, "Bob Example", "bob@example.com",
+                start, 189_000.0, "CARD");
+    }
+
+    @Benchmark
+    public byte[] car() throws JsonProcessingException {
+        return writer.writeValueAsBytes(car);
+    }
+
+    @Benchmark
+    public byte[] carSummary() throws JsonProcessingException {
+        return writer.writeValueAsBytes(summary);
+    }
+
+    @Benchmark
+    public byte[] reservation() throws JsonProcessingException {
+        return writer.writeValueAsBytes(reservation);
+    }
+
+    @Benchmark
+    public byte[] purchase() throws JsonProcessingException {
+        return writer.writeValueAsBytes(purchase);
+    }
+}
@@ -0,0 +1,68 @@
+package luxuryride.controller;
+
+import luxuryride.entities.Car;
+import luxuryride.service.CarService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The car stream over a real connection: public, server-sent, and carrying
+ * catalog changes as they are committed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "luxuryride.stream.timeout=5s")
+class CarStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CarService carService;
+
+    @Test
+    void carChangesArriveAsEvents() throws Exception {
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            HttpResponse<Stream<String>> response = http.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/cars/stream")).build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+
+            Car car = carService.createCar(new Car(null, "Bentley", "Continental", "ST-001", 300.0,
+                    true, false, true, null));
+            Car sold = new Car(null, "Bentley", "Continental", "ST-001", 280.0, false, false, false, null);
+            carService.updateCar(car.getId(), sold);
+
+            String created = "data: {\"id\":" + car.getId() + ",\"available\":true,\"forRent\":false,"
+                    + "\"forSale\":true,\"price\":300.0}";
+            String updated = "data: {\"id\":" + car.getId() + ",\"available\":false,\"forRent\":false,"
+                    + "\"forSale\":false,\"price\":280.0}";
+            // the stream ends at its timeout, so a missing event fails rather than hangs
+            try (Stream<String> body = response.body()) {
+                Iterator<String> lines = body.iterator();
+                assertTrue(readUntil(lines, created), "creation event");
+                assertTrue(readUntil(lines, updated), "update event");
+            }
+        }
+    }
+
+    private static boolean readUntil(Iterator<String> lines, String expected) {
+        while (lines.hasNext()) {
+            if (lines.next().equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,109 @@
+package luxuryride.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import luxuryride.entities.Car;
+import luxuryride.service.CarService;
+import luxuryride.service.ReservationService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The catalog and single cars carry ETags, answer unchanged revalidations
+ * with 304, and serve repeated reads without touching the database.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser
+class CatalogConditionalGetTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void catalogIsRevalidatedUntilACarChanges() throws Exception {
+        carService.createCar(car("ET-001"));
+        String etag = mvc.perform(get("/api/cars")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mvc.perform(get("/api/cars").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/cars")).andExpect(status().isOk());
+        assertEquals(0, stats.getPrepareStatementCount(), "served from the cached body");
+
+        carService.createCar(car("ET-002"));
+        String changed = mvc.perform(get("/api/cars").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void singleCarETagFollowsItsContent() throws Exception {
+        Car car = carService.createCar(car("ET-003"));
+        String path = "/api/cars/" + car.getId();
+        String etag = mvc.perform(get(path)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+        car.setPrice(999.0);
+        carService.updateCar(car.getId(), car);
+        String updated = mvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updated);
+
+        mvc.perform(get("/api/cars/" + Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rentalsLeaveTheETagsAlone() throws Exception {
+        Car car = carService.createCar(car("ET-004"));
+        String path = "/api/cars/" + car.getId();
+        String catalogTag = mvc.perform(get("/api/cars")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String carTag = mvc.perform(get(path)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // a checkout bumps the car's version, which no response shows
+        LocalDate start = LocalDate.of(2032, 5, 1);
+        reservationService.rentCar(car.getId(), "Erin", "erin@example.com", start, start.plusDays(2));
+
+        mvc.perform(get("/api/cars").header(HttpHeaders.IF_NONE_MATCH, catalogTag))
+                .andExpect(status().isNotModified());
+        String body = mvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertFalse(body.contains("version"), body);
+        mvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, carTag)).andExpect(status().isNotModified());
+    }
+
+    private static Car car(String plates) {
+        return new Car(null, "Bentley", "Continental", plates, 400.0, true, true, false, "Grand tourer");
+    }
+}
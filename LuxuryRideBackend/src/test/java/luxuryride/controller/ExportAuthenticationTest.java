@@ -0,0 +1,82 @@
+package luxuryride.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import luxuryride.entities.Car;
+import luxuryride.entities.Purchase;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.PurchaseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * An export over a real connection, authorized by a bearer token: the
+ * body is written on an async dispatch, which must still see the token's
+ * authentication.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "luxuryride.auth.admin.username=boss",
+        "luxuryride.auth.admin.password=boss-secret"
+})
+class ExportAuthenticationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2046, 5, 20);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private PurchaseRepository purchaseRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void adminTokenStreamsTheWholeExport() throws Exception {
+        Car car = carRepo.save(new Car(null, "Lamborghini", "Revuelto", "EA-001", 500_000.0,
+                false, true, true, null));
+        Long id = purchaseRepo.save(new Purchase(null, car, "Exporter", "export@example.com", DAY,
+                500_000.0, "card")).getId();
+
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            String token = objectMapper.readTree(http.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"username\": \"boss\", \"password\": \"boss-secret\"}"))
+                            .build(), HttpResponse.BodyHandlers.ofString()).body())
+                    .get("token").asText();
+
+            HttpResponse<String> export = http.send(HttpRequest.newBuilder(
+                            uri("/api/purchases/export?from=" + DAY + "&to=" + DAY + "&format=csv"))
+                    .header("Authorization", "Bearer " + token)
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, export.statusCode());
+            String[] lines = export.body().split("\n");
+            assertEquals(2, lines.length, export.body());
+            assertTrue(lines[0].startsWith("id,carId,"), lines[0]);
+            assertTrue(lines[1].startsWith(id + "," + car.getId() + ",Lamborghini,Revuelto,"), lines[1]);
+            assertTrue(export.body().endsWith("\n"), export.body());
+
+            HttpResponse<String> anonymous = http.send(HttpRequest.newBuilder(
+                    uri("/api/purchases/export")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(401, anonymous.statusCode());
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
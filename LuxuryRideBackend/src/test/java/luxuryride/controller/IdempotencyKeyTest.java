@@ -0,0 +1,119 @@
+package luxuryride.controller;
+
+import luxuryride.entities.Car;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.ReservationRepository;
+import luxuryride.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Retried rent requests carrying the same Idempotency-Key book once and get
+ * the first answer back, from the cache or, after eviction, from the table.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class IdempotencyKeyTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long carId;
+
+    @BeforeEach
+    void setUp() {
+        carId = carRepo.save(new Car(null, "Rolls-Royce", "Ghost", "IK-" + UUID.randomUUID(), 900.0,
+                true, true, false, "Chauffeur spec")).getId();
+    }
+
+    @Test
+    void retryReplaysTheFirstReservation() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String first = mvc.perform(rent(key, "2031-03-01", "2031-03-03"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+        long reservations = reservationRepo.count();
+
+        String retry = mvc.perform(rent(key, "2031-03-01", "2031-03-03"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retry);
+        assertEquals(reservations, reservationRepo.count(), "the retry must not book again");
+    }
+
+    @Test
+    void storedAnswerSurvivesCacheEviction() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mvc.perform(rent(key, "2031-04-01", "2031-04-02")).andExpect(status().isOk());
+        long reservations = reservationRepo.count();
+
+        cacheManager.getCache(IdempotencyService.CACHE).clear();
+
+        mvc.perform(rent(key, "2031-04-01", "2031-04-02"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+        assertEquals(reservations, reservationRepo.count());
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mvc.perform(rent(key, "2031-05-01", "2031-05-02")).andExpect(status().isOk());
+
+        mvc.perform(rent(key, "2031-05-10", "2031-05-12")).andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void clientErrorsAreReplayedToo() throws Exception {
+        String key = UUID.randomUUID().toString();
+        // ends before it starts
+        mvc.perform(rent(key, "2031-06-05", "2031-06-01")).andExpect(status().isBadRequest());
+
+        mvc.perform(rent(key, "2031-06-05", "2031-06-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+    }
+
+    @Test
+    void blankKeyIsRejected() throws Exception {
+        mvc.perform(rent(" ", "2031-07-01", "2031-07-02")).andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder rent(String key, String start, String end) {
+        return post("/api/reservations/rent")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"carId": %d, "customerName": "Alice", "customerEmail": "alice@example.com",
+                         "startDate": "%s", "endDate": "%s"}
+                        """.formatted(carId, start, end));
+    }
+}
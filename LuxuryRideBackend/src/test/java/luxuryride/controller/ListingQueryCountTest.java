@@ -0,0 +1,97 @@
+package luxuryride.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import luxuryride.entities.Car;
+import luxuryride.entities.Purchase;
+import luxuryride.entities.Reservation;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The reservation and purchase listings must cost the same number of SQL
+ * statements however many rows they return (no N+1 on the car association).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ListingQueryCountTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    @Autowired
+    private PurchaseRepository purchaseRepo;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void reservationListingUsesOneQueryRegardlessOfRows() throws Exception {
+        seed(2);
+        long few = statementsFor("/api/reservations");
+        seed(25);
+        long many = statementsFor("/api/reservations");
+
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void purchaseListingUsesOneQueryRegardlessOfRows() throws Exception {
+        seed(2);
+        long few = statementsFor("/api/purchases");
+        seed(25);
+        long many = statementsFor("/api/purchases");
+
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    private long statementsFor(String url) throws Exception {
+        stats.clear();
+        mvc.perform(get(url)).andExpect(status().isOk());
+        return stats.getPrepareStatementCount();
+    }
+
+    /** One car per row, so a per-row car fetch would show up as extra statements. */
+    private void seed(int rows) {
+        LocalDate day = LocalDate.of(2032, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            Car car = carRepo.save(new Car(null, "Audi", "R8", "QC-" + System.nanoTime(), 120.0,
+                    true, true, true, "A long description"));
+            reservationRepo.save(new Reservation(null, car, "Alice", "alice@example.com",
+                    day, day.plusDays(2), 360.0, Reservation.Status.PENDING));
+            purchaseRepo.save(new Purchase(null, car, "Bob", "bob@example.com",
+                    day, 120.0, "Card"));
+        }
+    }
+}
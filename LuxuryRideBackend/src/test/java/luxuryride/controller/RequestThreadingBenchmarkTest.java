@@ -0,0 +1,279 @@
+package luxuryride.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import luxuryride.LuxuryRideApplication;
+import luxuryride.entities.Car;
+import luxuryride.entities.Reservation;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.ReservationRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Before/after load test for {@code spring.threads.virtual.enabled}.
+ *
+ * The application runs twice on a real port: once on a small platform-thread
+ * Tomcat pool, once on virtual threads. Every JDBC statement is delayed to
+ * model a remote database. One group of clients reads customer histories
+ * (database bound, limited by the connection pool), another reads single
+ * cars (served from the cache). On platform threads the slow requests hold
+ * the workers and starve the cheap ones; on virtual threads they don't.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class RequestThreadingBenchmarkTest {
+
+    private static final long STATEMENT_LATENCY_MS = 50;
+    private static final int PLATFORM_THREADS = 20;
+    private static final int POOL_SIZE = 5;
+    private static final int CATALOG_CLIENTS = 20;
+    private static final int HISTORY_CLIENTS = 40;
+    private static final int CARS = 100;
+    private static final int CUSTOMERS = 50;
+    private static final Duration WARMUP = Duration.ofSeconds(2);
+    private static final Duration MEASURE = Duration.ofSeconds(5);
+
+    @Test
+    void virtualThreadsKeepCheapRequestsFlowingWhileDatabaseIsSaturated() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        System.out.printf("platform threads: %s%nvirtual threads:  %s%n", platform, virtual);
+
+        assertEquals(0, platform.errors + virtual.errors, "no request may fail");
+        assertTrue(virtual.catalog.throughput() > platform.catalog.throughput(),
+                "cached reads should not queue behind database-bound requests");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                LuxuryRideApplication.class, LoadTestSetup.class)
+                // command-line style, so they win over application.properties
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:threading-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        "--luxuryride.auth.admin.username=load",
+                        "--luxuryride.auth.admin.password=load",
+                        "--logging.level.root=WARN");
+        try {
+            List<Long> carIds = seed(context);
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadRun load = new LoadRun("http://localhost:" + port, carIds);
+            load.login();
+            return load.execute();
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context) {
+        CarRepository cars = context.getBean(CarRepository.class);
+        ReservationRepository reservations = context.getBean(ReservationRepository.class);
+        List<Car> batch = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            batch.add(new Car(null, "Brand" + (i % 10), "Model" + i, "P" + i, 100 + i,
+                    true, true, false, "Seeded car"));
+        }
+        List<Car> saved = cars.saveAll(batch);
+        List<Reservation> bookings = new ArrayList<>();
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < saved.size(); i++) {
+            bookings.add(new Reservation(null, saved.get(i), "Customer", "customer" + (i % CUSTOMERS) + "@example.com",
+                    start.plusDays(i), start.plusDays(i + 2), 300.0, Reservation.Status.CONFIRMED));
+        }
+        reservations.saveAll(bookings);
+        return saved.stream().map(Car::getId).toList();
+    }
+
+    /** Closed-loop clients: each sends its next request as soon as the previous one returns. */
+    private static final class LoadRun {
+
+        private final HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        private final String baseUrl;
+        private final List<Long> carIds;
+        private final AtomicInteger errors = new AtomicInteger();
+        private String authorization;
+
+        LoadRun(String baseUrl, List<Long> carIds) {
+            this.baseUrl = baseUrl;
+            this.carIds = carIds;
+        }
+
+        /** One password check up front; every request after that carries the token. */
+        void login() throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\": \"load\", \"password\": \"load\"}"))
+                    .build();
+            String body = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)).body();
+            authorization = "Bearer " + new ObjectMapper().readTree(body).get("token").asText();
+        }
+
+        Result execute() throws InterruptedException {
+            Recorder catalog = new Recorder();
+            Recorder history = new Recorder();
+            long start = System.nanoTime();
+            long measureFrom = start + WARMUP.toNanos();
+            long stopAt = measureFrom + MEASURE.toNanos();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CATALOG_CLIENTS; i++) {
+                    clients.submit(() -> loop(catalog, measureFrom, stopAt, () ->
+                            "/api/cars/" + carIds.get(ThreadLocalRandom.current().nextInt(carIds.size()))));
+                }
+                for (int i = 0; i < HISTORY_CLIENTS; i++) {
+                    clients.submit(() -> loop(history, measureFrom, stopAt, () ->
+                            "/api/customers/customer" + ThreadLocalRandom.current().nextInt(CUSTOMERS)
+                                    + "@example.com/history"));
+                }
+            }
+            return new Result(catalog.summary(), history.summary(), errors.get());
+        }
+
+        private void loop(Recorder recorder, long measureFrom, long stopAt, Supplier<String> path) {
+            long now;
+            while ((now = System.nanoTime()) < stopAt) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path.get()))
+                        .header("Authorization", authorization)
+                        .timeout(Duration.ofSeconds(30))
+                        .build();
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+                if (now >= measureFrom) {
+                    recorder.record(System.nanoTime() - now);
+                }
+            }
+        }
+    }
+
+    /** Request latencies of one client group during the measured window. */
+    private static final class Recorder {
+
+        private final List<Long> nanos = new ArrayList<>();
+
+        synchronized void record(long latencyNanos) {
+            nanos.add(latencyNanos);
+        }
+
+        synchronized Summary summary() {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            if (sorted.length == 0) {
+                return new Summary(0, 0, 0);
+            }
+            return new Summary(sorted.length,
+                    sorted[sorted.length / 2] / 1_000_000.0,
+                    sorted[(int) (sorted.length * 0.99)] / 1_000_000.0);
+        }
+    }
+
+    private record Summary(int requests, double p50Millis, double p99Millis) {
+
+        double throughput() {
+            return requests / (double) MEASURE.toSeconds();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s (p50 %.1f ms, p99 %.1f ms)", throughput(), p50Millis, p99Millis);
+        }
+    }
+
+    private record Result(Summary catalog, Summary history, int errors) {
+
+        @Override
+        public String toString() {
+            return "catalog " + catalog + ", history " + history + ", errors " + errors;
+        }
+    }
+
+    /**
+     * Registered explicitly (not a @Configuration) so component scanning in
+     * other tests never picks it up.
+     */
+    static class LoadTestSetup {
+
+        /**
+         * Delays every JDBC statement execution by {@link #STATEMENT_LATENCY_MS},
+         * while the connection is held, like a round trip to a remote database.
+         */
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? delayed(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T delayed(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(STATEMENT_LATENCY_MS);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection) {
+                    return delayed(Connection.class, connection);
+                }
+                if (result instanceof CallableStatement statement) {
+                    return delayed(CallableStatement.class, statement);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return delayed(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return delayed(Statement.class, statement);
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package luxuryride.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login trades a password for a bearer token; requests are then authorized
+ * by the token alone, and the catalog needs none.
+ */
+@SpringBootTest(properties = {
+        "luxuryride.auth.admin.username=boss",
+        "luxuryride.auth.admin.password=boss-secret",
+        "spring.security.user.name=alice",
+        "spring.security.user.password=alice-secret"
+})
+@AutoConfigureMockMvc
+class TokenAuthenticationTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void catalogIsPublic() throws Exception {
+        mvc.perform(get("/api/cars")).andExpect(status().isOk());
+        mvc.perform(get("/api/reservations/1")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void wrongPasswordIsRefused() throws Exception {
+        mvc.perform(login("boss", "guess")).andExpect(status().isUnauthorized());
+        mvc.perform(login("nobody", "guess")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void adminTokenOpensAdminEndpoints() throws Exception {
+        String token = token("boss", "boss-secret");
+
+        mvc.perform(get("/api/admin/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        // served from the verified-token cache the second time
+        mvc.perform(get("/api/admin/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void userTokenIsNotAdmin() throws Exception {
+        String token = token("alice", "alice-secret");
+
+        mvc.perform(get("/api/customers/alice@example.com/history")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/admin/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mvc.perform(post("/api/cars").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void tamperedTokenIsIgnored() throws Exception {
+        String token = token("alice", "alice-secret");
+        // claim the admin role under alice's signature
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + ".ROLE_ADMIN." + parts[2] + "." + parts[3];
+
+        mvc.perform(get("/api/admin/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + forged))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/admin/stats").header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String token(String username, String password) throws Exception {
+        String body = mvc.perform(login(username, password))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals("Bearer", json.get("tokenType").asText());
+        return json.get("token").asText();
+    }
+
+    private static MockHttpServletRequestBuilder login(String username, String password) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"username": "%s", "password": "%s"}
+                        """.formatted(username, password));
+    }
+}
@@ -0,0 +1,80 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.ReservationSlot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency check for {@link AvailabilityIndex#findFreeCars} at fleet scale.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class AvailabilityIndexBenchmarkTest {
+
+    private static final int CARS = 30_000;
+    private static final int RESERVATIONS_PER_CAR = 10;
+    private static final int QUERIES = 500;
+    private static final LocalDate ORIGIN = LocalDate.of(2030, 1, 1);
+
+    private static AvailabilityIndex index;
+
+    @BeforeAll
+    static void seed() {
+        Random random = new Random(42);
+        List<CarSummary> cars = new ArrayList<>(CARS);
+        List<ReservationSlot> slots = new ArrayList<>(CARS * RESERVATIONS_PER_CAR);
+        long reservationId = 1;
+        for (long carId = 1; carId <= CARS; carId++) {
+            cars.add(new CarSummary(carId, "Brand" + (carId % 40), "Model" + carId, "P" + carId,
+                    50 + random.nextInt(500), true, true, false));
+            // non-overlapping bookings spread over the year
+            LocalDate cursor = ORIGIN.plusDays(random.nextInt(10));
+            for (int i = 0; i < RESERVATIONS_PER_CAR; i++) {
+                LocalDate end = cursor.plusDays(1 + random.nextInt(7));
+                slots.add(new ReservationSlot(reservationId++, carId, cursor, end));
+                cursor = end.plusDays(10 + random.nextInt(30));
+            }
+        }
+        index = new AvailabilityIndex();
+        index.load(cars, slots);
+    }
+
+    @Test
+    void findFreeCarsStaysUnderTenMillis() {
+        Random random = new Random(7);
+        // warm up the JIT before measuring
+        for (int i = 0; i < 200; i++) {
+            query(random);
+        }
+
+        long[] nanos = new long[QUERIES];
+        long found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long t0 = System.nanoTime();
+            found += query(random);
+            nanos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(nanos);
+
+        double p50 = nanos[QUERIES / 2] / 1e6;
+        double p99 = nanos[QUERIES * 99 / 100] / 1e6;
+        System.out.printf("findFreeCars over %d cars / %d reservations: p50=%.2fms p99=%.2fms (avg %d hits)%n",
+                CARS, index.size(), p50, p99, found / QUERIES);
+        assertTrue(p99 < 10.0, "p99 " + p99 + "ms exceeds 10ms");
+    }
+
+    private static int query(Random random) {
+        LocalDate start = ORIGIN.plusDays(random.nextInt(365));
+        return index.findFreeCars(start, start.plusDays(1 + random.nextInt(14))).size();
+    }
+}
@@ -0,0 +1,113 @@
+package luxuryride.index;
+
+import luxuryride.dto.ReservationSlot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityIndexTest {
+
+    private static final Long CAR = 1L;
+    private static final Long OTHER_CAR = 2L;
+
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AvailabilityIndex();
+        // car 1 is booked July 10-15 and July 20-20
+        index.put(100L, CAR, day(10), day(15));
+        index.put(101L, CAR, day(20), day(20));
+    }
+
+    @Test
+    void overlappingRangesAreNotFree() {
+        assertFalse(index.isFree(CAR, day(12), day(13)));   // inside
+        assertFalse(index.isFree(CAR, day(8), day(11)));    // overlaps the start
+        assertFalse(index.isFree(CAR, day(14), day(18)));   // overlaps the end
+        assertFalse(index.isFree(CAR, day(5), day(25)));    // covers both bookings
+        assertFalse(index.isFree(CAR, day(20), day(20)));   // single day on a single day
+    }
+
+    @Test
+    void boundaryDaysAreInclusive() {
+        assertFalse(index.isFree(CAR, day(15), day(17)));   // starts on the last booked day
+        assertFalse(index.isFree(CAR, day(5), day(10)));    // ends on the first booked day
+        assertTrue(index.isFree(CAR, day(16), day(19)));    // exactly the gap between bookings
+        assertTrue(index.isFree(CAR, day(1), day(9)));
+        assertTrue(index.isFree(CAR, day(21), day(31)));
+    }
+
+    @Test
+    void carsAreIndependent() {
+        assertTrue(index.isFree(OTHER_CAR, day(10), day(15)));
+        index.put(200L, OTHER_CAR, day(1), day(31));
+        assertFalse(index.isFree(OTHER_CAR, day(16), day(16)));
+        assertTrue(index.isFree(CAR, day(16), day(19)));
+    }
+
+    @Test
+    void removedReservationReleasesItsDates() {
+        index.remove(100L);
+        assertTrue(index.isFree(CAR, day(10), day(15)));
+        assertFalse(index.isFree(CAR, day(20), day(20)));
+        assertEquals(1, index.size());
+
+        index.remove(999L); // unknown ids are ignored
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void movingAReservationIgnoresItsOwnRange() {
+        assertFalse(index.isFree(CAR, day(12), day(17)));
+        assertTrue(index.isFree(CAR, day(12), day(17), 100L));
+        assertFalse(index.isFree(CAR, day(12), day(20), 100L));
+
+        index.put(100L, CAR, day(12), day(17));
+        assertTrue(index.isFree(CAR, day(10), day(11)));
+        assertFalse(index.isFree(CAR, day(17), day(17)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void overlappingLegacyBookingsAreAllSeen() {
+        // rows from before rentals were checked: a long booking July 1-25
+        // under shorter ones that start later
+        index.put(102L, CAR, day(1), day(25));
+        index.put(103L, CAR, day(22), day(23));
+        assertFalse(index.isFree(CAR, day(24), day(24)));   // only the long one covers it
+        assertFalse(index.isFree(CAR, day(17), day(18)));   // the gap of the newer bookings
+        assertFalse(index.isFree(CAR, day(24), day(28), 103L));
+        assertTrue(index.isFree(CAR, day(24), day(28), 102L));
+        assertTrue(index.isFree(CAR, day(26), day(31)));
+
+        index.remove(102L);
+        assertTrue(index.isFree(CAR, day(24), day(24)));
+        assertTrue(index.isFree(CAR, day(16), day(19)));
+    }
+
+    @Test
+    void removingACarDropsAllItsBookings() {
+        index.put(200L, OTHER_CAR, day(1), day(2));
+        index.removeCar(CAR);
+        assertTrue(index.isFree(CAR, day(1), day(31)));
+        assertFalse(index.isFree(OTHER_CAR, day(1), day(1)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void loadReplacesTheIndex() {
+        index.load(List.of(new ReservationSlot(300L, OTHER_CAR, day(5), day(6))));
+        assertTrue(index.isFree(CAR, day(1), day(31)));
+        assertFalse(index.isFree(OTHER_CAR, day(6), day(9)));
+        assertEquals(1, index.size());
+    }
+
+    private static LocalDate day(int dayOfJuly) {
+        return LocalDate.of(2025, 7, dayOfJuly);
+    }
+}
@@ -0,0 +1,89 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarFacets;
+import luxuryride.dto.CarFilter;
+import luxuryride.dto.CarSummary;
+import luxuryride.events.CarChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarFacetIndexTest {
+
+    private static final CarFilter NO_FILTER = new CarFilter(null, null, null, null, null, null);
+
+    private CarFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CarFacetIndex(new double[]{100, 500});
+        index.load(List.of(
+                car(1L, "BMW", 80, true, true, false),
+                car(2L, "BMW", 300, true, false, true),
+                car(3L, "Audi", 300, false, true, false),
+                car(4L, "Porsche", 900, true, true, true)));
+    }
+
+    @Test
+    void unfilteredCountsCoverTheWholeFleet() {
+        CarFacets facets = index.facets(NO_FILTER);
+
+        assertEquals(4, facets.total());
+        assertEquals(3, facets.forRent());
+        assertEquals(2, facets.forSale());
+        assertEquals(3, facets.available());
+        assertEquals(Map.of("BMW", 2, "Audi", 1, "Porsche", 1), facets.brands());
+        assertEquals("BMW", facets.brands().keySet().iterator().next(), "largest brand first");
+        assertEquals(List.of(
+                new CarFacets.PriceBucket(null, 100.0, 1),
+                new CarFacets.PriceBucket(100.0, 500.0, 2),
+                new CarFacets.PriceBucket(500.0, null, 1)), facets.prices());
+    }
+
+    @Test
+    void eachFacetIgnoresOnlyItsOwnFilter() {
+        CarFacets facets = index.facets(new CarFilter(true, null, null, null, null, "BMW"));
+
+        assertEquals(1, facets.total(), "only car 1 is a BMW for rent");
+        assertEquals(1, facets.forRent());
+        assertEquals(0, facets.forSale(), "no BMW for rent is also for sale");
+        assertEquals(Map.of("BMW", 1, "Audi", 1, "Porsche", 1), facets.brands(), "cars for rent by brand");
+    }
+
+    @Test
+    void falseFlagsAndPriceRangesFilter() {
+        assertEquals(1, index.facets(new CarFilter(false, null, null, null, null, null)).total());
+        // ranges that cut through buckets check the prices inside them
+        assertEquals(2, index.facets(new CarFilter(null, null, null, 300.0, 300.0, null)).total());
+        assertEquals(3, index.facets(new CarFilter(null, null, null, 80.0, 300.0, null)).total());
+        assertEquals(1, index.facets(new CarFilter(null, null, null, 500.0, null, null)).total());
+        assertEquals(0, index.facets(new CarFilter(null, null, null, 400.0, 200.0, null)).total());
+        assertEquals(0, index.facets(new CarFilter(null, null, null, null, null, "Fiat")).total());
+    }
+
+    @Test
+    void changesMoveCarsBetweenFacets() {
+        index.onCarChanged(new CarChangedEvent(3L, car(3L, "BMW", 50, true, false, true)));
+        index.onCarChanged(CarChangedEvent.deleted(4L));
+
+        CarFacets facets = index.facets(NO_FILTER);
+        assertEquals(3, facets.total());
+        assertEquals(Map.of("BMW", 3), facets.brands());
+        assertEquals(1, facets.forRent());
+        assertEquals(2, facets.prices().get(0).count());
+        assertEquals(0, facets.prices().get(2).count());
+
+        index.put(car(5L, "Audi", 600, true, true, true));
+        assertEquals(4, index.size());
+        assertEquals(1, index.facets(NO_FILTER).prices().get(2).count());
+    }
+
+    private static CarSummary car(Long id, String brand, double price,
+                                  boolean available, boolean forRent, boolean forSale) {
+        return new CarSummary(id, brand, "Model", "P" + id, price, available, forRent, forSale, "description");
+    }
+}
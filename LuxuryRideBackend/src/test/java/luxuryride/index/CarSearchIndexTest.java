@@ -0,0 +1,86 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.events.CarChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarSearchIndexTest {
+
+    private CarSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CarSearchIndex();
+        index.load(List.of(
+                car(1L, "Porsche", "911 Cabriolet", "Red convertible, sport chrono"),
+                car(2L, "Porsche", "Cayenne", "Black SUV with red leather"),
+                car(3L, "Mercedes-Benz", "SL 63", "Red convertible roadster"),
+                car(4L, "Ferrari", "Roma", "Grigio coupé")));
+    }
+
+    @Test
+    void carsMatchingMoreWordsRankFirst() {
+        List<Long> found = ids(index.search("convertible red Porsche", 10));
+
+        assertEquals(1L, found.get(0), "the only car matching all three words");
+        assertEquals(List.of(2L, 3L), found.subList(1, 3).stream().sorted().toList());
+        assertEquals(3, found.size());
+    }
+
+    @Test
+    void brandOutranksDescription() {
+        index.put(car(5L, "Alpine", "A110", "Looks like a Porsche"));
+
+        assertEquals(List.of(1L, 2L, 5L), ids(index.search("porsche", 10)));
+    }
+
+    @Test
+    void wordsMatchAsPrefixesAndIgnoreCaseAndAccents() {
+        assertEquals(List.of(1L, 3L), ids(index.search("CONV", 10)));
+        assertEquals(List.of(4L), ids(index.search("coupe", 10)));
+        assertEquals(List.of(3L), ids(index.search("benz", 10)));
+    }
+
+    @Test
+    void exactTermsOutrankPrefixMatches() {
+        index.put(car(6L, "Mini", "Cooper", "red"));
+        index.put(car(7L, "Mini", "Cooper", "redline edition"));
+
+        List<Long> found = ids(index.search("red", 10));
+        assertTrue(found.indexOf(6L) < found.indexOf(7L));
+    }
+
+    @Test
+    void changesReplaceAndRemoveCars() {
+        index.onCarChanged(new CarChangedEvent(4L, car(4L, "Ferrari", "Roma", "Red spider")));
+        assertTrue(ids(index.search("grigio", 10)).isEmpty());
+        assertEquals(List.of(4L), ids(index.search("spider", 10)));
+
+        index.onCarChanged(CarChangedEvent.deleted(1L));
+        assertEquals(List.of(3L), ids(index.search("convertible", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void resultsCarryNoDescriptionAndRespectTheLimit() {
+        List<CarSummary> found = index.search("red", 2);
+
+        assertEquals(2, found.size());
+        assertNull(found.get(0).description());
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search("the", 10).isEmpty());
+    }
+
+    private static CarSummary car(Long id, String brand, String model, String description) {
+        return new CarSummary(id, brand, model, "P" + id, 100.0, true, true, false, description);
+    }
+
+    private static List<Long> ids(List<CarSummary> cars) {
+        return cars.stream().map(CarSummary::id).toList();
+    }
+}
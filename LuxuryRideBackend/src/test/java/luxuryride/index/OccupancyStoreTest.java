@@ -0,0 +1,151 @@
+package luxuryride.index;
+
+import luxuryride.dto.CarOccupancy;
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.FleetOccupancy;
+import luxuryride.dto.ReservationSlot;
+import luxuryride.entities.Reservation;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.ReservationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyStoreTest {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2030, 7, 1);
+    // bookings that ended more than a year before this are dropped
+    private static final Clock TODAY = Clock.fixed(JULY_1.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    private OccupancyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OccupancyStore(TODAY, 365);
+        store.load(List.of(car(1L, true), car(2L, true)), List.of(
+                new ReservationSlot(10L, 1L, JULY_1, JULY_1.plusDays(2)),
+                new ReservationSlot(11L, 1L, JULY_1.plusDays(8), JULY_1.plusDays(9))));
+    }
+
+    @Test
+    void bookedDaysArePackedFromTheStartOfTheRange() {
+        FleetOccupancy july = store.occupancy(JULY_1, JULY_1.plusDays(9));
+
+        assertEquals(10, july.days());
+        assertEquals(5, july.bookedDays());
+        assertEquals(25.0, july.utilization(), "5 of 20 car-days");
+        CarOccupancy first = july.cars().get(0);
+        assertEquals(1L, first.carId());
+        assertEquals(50.0, first.utilization());
+        assertEquals(bits(0, 1, 2, 8, 9), decode(first.bitmap()));
+        assertEquals(2, Base64.getDecoder().decode(first.bitmap()).length, "ten days fit in two bytes");
+        assertEquals(0, july.cars().get(1).bookedDays());
+    }
+
+    @Test
+    void rangesStartingBeforeTheFirstBookingAreShifted() {
+        CarOccupancy car = store.occupancy(JULY_1.minusDays(100), JULY_1.plusDays(1)).cars().get(0);
+
+        assertEquals(bits(100, 101), decode(car.bitmap()));
+        assertEquals(0, store.occupancy(JULY_1.plusDays(3), JULY_1.plusDays(7)).bookedDays());
+    }
+
+    @Test
+    void reservationEventsMoveAndReleaseDays() {
+        store.onReservationChanged(new ReservationChangedEvent(12L, null, snapshot(2L, 4, 5, Reservation.Status.PENDING)));
+        store.onReservationChanged(new ReservationChangedEvent(10L, null, snapshot(1L, 3, 3, Reservation.Status.CONFIRMED)));
+        store.onReservationChanged(new ReservationChangedEvent(11L, null, snapshot(1L, 8, 9, Reservation.Status.CANCELLED)));
+
+        List<CarOccupancy> cars = store.occupancy(JULY_1, JULY_1.plusDays(9)).cars();
+        assertEquals(bits(3), decode(cars.get(0).bitmap()));
+        assertEquals(bits(4, 5), decode(cars.get(1).bitmap()));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void onlyRentableOrBookedCarsAreListed() {
+        store.onCarChanged(new CarChangedEvent(2L, car(2L, false)));
+        assertEquals(List.of(1L), store.occupancy(JULY_1, JULY_1).cars().stream().map(CarOccupancy::carId).toList());
+
+        store.onCarChanged(CarChangedEvent.deleted(1L));
+        assertTrue(store.occupancy(JULY_1, JULY_1).cars().isEmpty());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void legacySlotsWithoutDaysAreSkipped() {
+        store.load(List.of(car(1L, true)), List.of(
+                new ReservationSlot(10L, 1L, JULY_1.plusDays(5), JULY_1.plusDays(2)),
+                new ReservationSlot(11L, 1L, null, JULY_1),
+                new ReservationSlot(12L, 1L, JULY_1, JULY_1.plusDays(1))));
+
+        assertEquals(1, store.size());
+        assertEquals(bits(0, 1), decode(store.occupancy(JULY_1, JULY_1.plusDays(9)).cars().get(0).bitmap()));
+
+        store.put(12L, 1L, JULY_1.plusDays(3), JULY_1.plusDays(1));
+        assertEquals(0, store.size(), "a reversed move releases the days");
+    }
+
+    @Test
+    void bookingsPastTheRetentionHorizonAreDropped() {
+        LocalDate longAgo = JULY_1.minusYears(3);
+        store.load(List.of(car(1L, true)), List.of(
+                new ReservationSlot(10L, 1L, longAgo, longAgo.plusDays(2)),
+                new ReservationSlot(11L, 1L, JULY_1, JULY_1.plusDays(1))));
+        assertEquals(1, store.size());
+        assertEquals(0, store.occupancy(longAgo, longAgo.plusDays(2)).bookedDays());
+
+        // aged out while stored: dropped when the car is next redrawn
+        LocalDate[] today = {JULY_1};
+        store = new OccupancyStore(new Clock() {
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            public Instant instant() {
+                return today[0].atStartOfDay().toInstant(ZoneOffset.UTC);
+            }
+        }, 365);
+        store.load(List.of(car(1L, true)), List.of(new ReservationSlot(11L, 1L, JULY_1, JULY_1.plusDays(1))));
+        today[0] = JULY_1.plusDays(400);
+        store.put(12L, 1L, today[0], today[0].plusDays(1));
+
+        assertEquals(1, store.size());
+        assertEquals(0, store.occupancy(JULY_1, JULY_1.plusDays(1)).bookedDays());
+        assertEquals(2, store.occupancy(today[0], today[0].plusDays(1)).bookedDays());
+    }
+
+    private static ReservationChangedEvent.Snapshot snapshot(Long carId, int from, int to, Reservation.Status status) {
+        return new ReservationChangedEvent.Snapshot(carId, JULY_1.plusDays(from), JULY_1.plusDays(to), 100, status);
+    }
+
+    private static BitSet decode(String bitmap) {
+        return BitSet.valueOf(Base64.getDecoder().decode(bitmap));
+    }
+
+    private static BitSet bits(int... days) {
+        BitSet bits = new BitSet();
+        for (int day : days) {
+            bits.set(day);
+        }
+        return bits;
+    }
+
+    private static CarSummary car(Long id, boolean forRent) {
+        return new CarSummary(id, "Porsche", "911", "P" + id, 100, true, forRent, false);
+    }
+}
@@ -0,0 +1,109 @@
+package luxuryride.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shape of a load run, read from {@code load.*} system properties
+ * ({@code mvn test -Pload -Dload.clients=128 ...}).
+ *
+ * @param cars       cars imported before the run
+ * @param customers  customers (client records and booking emails)
+ * @param clients    concurrent closed-loop clients
+ * @param warmup     traffic before measuring starts
+ * @param duration   measured traffic
+ * @param thinkTime  pause between a client's requests
+ * @param mix        relative weight of each operation
+ * @param seed       random seed; the same seed replays the same request sequence per client
+ * @param report     where the JSON report goes
+ * @param maxErrorRate  the run fails above this share of server errors
+ * @param appProperties application properties for the server under test, over the harness defaults
+ */
+record LoadConfig(int cars,
+                  int customers,
+                  int clients,
+                  Duration warmup,
+                  Duration duration,
+                  Duration thinkTime,
+                  Map<Operation, Integer> mix,
+                  long seed,
+                  Path report,
+                  double maxErrorRate,
+                  Map<String, String> appProperties) {
+
+    static final String DEFAULT_MIX = "car:40,catalog:20,history:10,rent:15,buy:3,update:7,delete:5";
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                Integer.getInteger("load.cars", 1000),
+                Integer.getInteger("load.customers", 500),
+                Integer.getInteger("load.clients", 64),
+                duration("load.warmup", "5s"),
+                duration("load.duration", "20s"),
+                duration("load.think-time", "0ms"),
+                mix(System.getProperty("load.mix", DEFAULT_MIX)),
+                Long.getLong("load.seed", 42),
+                Path.of(System.getProperty("load.report", "target/load-report.json")),
+                Double.parseDouble(System.getProperty("load.max-error-rate", "0.01")),
+                pairs(System.getProperty("load.app-properties", "")));
+    }
+
+    /** Operations the clients pick from, by weight. */
+    enum Operation {
+        /** GET /api/cars/{id} */
+        CAR,
+        /** GET /api/cars?limit=20, a page at a random point of the catalog */
+        CATALOG,
+        /** GET /api/customers/{email}/history */
+        HISTORY,
+        /** POST /api/reservations/rent */
+        RENT,
+        /** POST /api/purchases/buy */
+        BUY,
+        /** PUT /api/reservations/{id}, moving one of the client's own reservations */
+        UPDATE,
+        /** DELETE /api/reservations/{id}, one of the client's own reservations */
+        DELETE;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** {@code car:40,rent:15,...}; operations left out get no traffic. */
+    static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        pairs(spec.replace(':', '=')).forEach((op, weight) ->
+                mix.put(Operation.valueOf(op.toUpperCase(Locale.ROOT)), Integer.parseInt(weight)));
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix has no positive weight: " + spec);
+        }
+        return mix;
+    }
+
+    /** {@code a=1,b=2} into an ordered map. */
+    private static Map<String, String> pairs(String spec) {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String pair : spec.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("expected key=value, got: " + pair);
+            }
+            pairs.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+        }
+        return pairs;
+    }
+
+    private static Duration duration(String property, String fallback) {
+        return DurationStyle.detectAndParse(System.getProperty(property, fallback));
+    }
+}
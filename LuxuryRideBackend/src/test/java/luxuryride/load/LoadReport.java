@@ -0,0 +1,53 @@
+package luxuryride.load;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The machine-readable result of a load run, written as JSON. Field names
+ * are stable so reports from different commits can be diffed or charted.
+ *
+ * Responses are split four ways: {@code ok} (2xx), {@code rejected}
+ * (4xx the workload expects, e.g. a car already booked for those dates),
+ * {@code shed} (429/503 from admission control) and {@code errors} (other
+ * 5xx and failed connections). Only errors count towards the error rate.
+ */
+record LoadReport(Instant startedAt,
+                  String commit,
+                  String java,
+                  Settings settings,
+                  Seeding seeding,
+                  Stats total,
+                  Map<String, Stats> operations) {
+
+    record Settings(int cars,
+                    int customers,
+                    int clients,
+                    double warmupSeconds,
+                    double durationSeconds,
+                    double thinkTimeMillis,
+                    Map<String, Integer> mix,
+                    long seed,
+                    Map<String, String> appProperties) {
+    }
+
+    record Seeding(int cars, int customers, long millis) {
+    }
+
+    /** One operation (or all of them) over the measured window; latencies in milliseconds. */
+    record Stats(long requests,
+                 double throughput,
+                 long ok,
+                 long rejected,
+                 long shed,
+                 long errors,
+                 double errorRate,
+                 double meanMs,
+                 double p50Ms,
+                 double p90Ms,
+                 double p99Ms,
+                 double p999Ms,
+                 double maxMs,
+                 Map<String, Long> statuses) {
+    }
+}
@@ -0,0 +1,268 @@
+package luxuryride.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import luxuryride.load.LoadConfig.Operation;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Closed-loop clients replaying the configured operation mix against a
+ * running server: each client sends its next request as soon as the
+ * previous one returns (plus the think time). Latencies are recorded only
+ * after the warmup.
+ *
+ * Every client has its own random stream derived from the seed, and keeps
+ * the reservations it made, which its updates and deletes then work on.
+ * An update or delete by a client with no reservation yet rents instead.
+ */
+final class LoadRunner {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2031, 1, 1);
+    static final int BOOKING_WINDOW_DAYS = 730;
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final String baseUrl;
+    private final String authorization;
+    private final Fleet fleet;
+    private final List<String> customers;
+    private final LoadConfig config;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Operation[] wheel;
+
+    LoadRunner(HttpClient http, ObjectMapper json, String baseUrl, String token,
+               Fleet fleet, List<String> customers, LoadConfig config) {
+        this.http = http;
+        this.json = json;
+        this.baseUrl = baseUrl;
+        this.authorization = "Bearer " + token;
+        this.fleet = fleet;
+        this.customers = customers;
+        this.config = config;
+        for (Operation op : Operation.values()) {
+            recorders.put(op, new Recorder());
+        }
+        // one slot per unit of weight, so picking an operation is one array read
+        this.wheel = config.mix().entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Operation[]::new);
+    }
+
+    /** The cars a run works on, from the seeded catalog. */
+    record Fleet(long[] all, long[] forRent, long[] forSale) {
+    }
+
+    /** Run the clients for warmup plus duration; returns the stats of the measured window. */
+    Map<Operation, LoadReport.Stats> run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long stopAt = measureFrom + config.duration().toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.clients(); i++) {
+                Random random = new Random(config.seed() * 1_000_003L + i);
+                clients.submit(() -> client(random, measureFrom, stopAt));
+            }
+        }
+        Map<Operation, LoadReport.Stats> stats = new EnumMap<>(Operation.class);
+        recorders.forEach((op, recorder) -> {
+            if (config.mix().containsKey(op)) {
+                stats.put(op, recorder.stats(config.duration()));
+            }
+        });
+        return stats;
+    }
+
+    /** All operations together. */
+    LoadReport.Stats total() {
+        Recorder all = new Recorder();
+        recorders.values().forEach(all::addAll);
+        return all.stats(config.duration());
+    }
+
+    private void client(Random random, long measureFrom, long stopAt) {
+        Deque<Long> reservations = new ArrayDeque<>();
+        long now;
+        while ((now = System.nanoTime()) < stopAt) {
+            Operation op = wheel[random.nextInt(wheel.length)];
+            if ((op == Operation.UPDATE || op == Operation.DELETE) && reservations.isEmpty()) {
+                op = Operation.RENT;
+            }
+            int status;
+            try {
+                status = send(op, random, reservations);
+            } catch (Exception e) {
+                status = Recorder.FAILED;
+            }
+            if (now >= measureFrom) {
+                recorders.get(op).record(System.nanoTime() - now, status);
+            }
+            if (!config.thinkTime().isZero()) {
+                try {
+                    Thread.sleep(config.thinkTime());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private int send(Operation op, Random random, Deque<Long> reservations) throws Exception {
+        String customer = customers.get(random.nextInt(customers.size()));
+        return switch (op) {
+            case CAR -> get("/api/cars/" + pick(fleet.all(), random)).statusCode();
+            case CATALOG -> get("/api/cars?limit=20&forRent=true&after=" + pick(fleet.all(), random)).statusCode();
+            case HISTORY -> get("/api/customers/" + customer + "/history?limit=20").statusCode();
+            case RENT -> {
+                LocalDate start = FIRST_DAY.plusDays(random.nextInt(BOOKING_WINDOW_DAYS));
+                HttpResponse<String> response = send("POST", "/api/reservations/rent", Map.of(
+                        "carId", pick(fleet.forRent(), random),
+                        "customerName", customer,
+                        "customerEmail", customer,
+                        "startDate", start.toString(),
+                        "endDate", start.plusDays(random.nextInt(7)).toString()));
+                if (response.statusCode() == 200) {
+                    reservations.add(json.readTree(response.body()).get("id").asLong());
+                }
+                yield response.statusCode();
+            }
+            case BUY -> send("POST", "/api/purchases/buy", Map.of(
+                    "carId", pick(fleet.forSale(), random),
+                    "customerName", customer,
+                    "customerEmail", customer,
+                    "paymentMethod", "Card")).statusCode();
+            case UPDATE -> {
+                Long id = reservations.peekFirst();
+                LocalDate start = FIRST_DAY.plusDays(random.nextInt(BOOKING_WINDOW_DAYS));
+                yield send("PUT", "/api/reservations/" + id, Map.of(
+                        "startDate", start.toString(),
+                        "endDate", start.plusDays(random.nextInt(7)).toString(),
+                        "totalPrice", 100.0,
+                        "status", "CONFIRMED")).statusCode();
+            }
+            case DELETE -> request("DELETE", "/api/reservations/" + reservations.pollFirst(),
+                    HttpRequest.BodyPublishers.noBody()).statusCode();
+        };
+    }
+
+    private static long pick(long[] ids, Random random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return request("GET", path, HttpRequest.BodyPublishers.noBody());
+    }
+
+    private HttpResponse<String> send(String method, String path, Object body) throws Exception {
+        return request(method, path, HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)));
+    }
+
+    private HttpResponse<String> request(String method, String path, HttpRequest.BodyPublisher body)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, body)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    /** Latencies and statuses of one operation; {@link #FAILED} stands for no response at all. */
+    static final class Recorder {
+
+        static final int FAILED = -1;
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        synchronized void record(long latencyNanos, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            statuses.merge(status, 1L, Long::sum);
+        }
+
+        synchronized void addAll(Recorder other) {
+            synchronized (other) {
+                for (int i = 0; i < other.count; i++) {
+                    if (count == nanos.length) {
+                        nanos = Arrays.copyOf(nanos, Math.max(count * 2, 1024));
+                    }
+                    nanos[count++] = other.nanos[i];
+                }
+                other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+            }
+        }
+
+        synchronized LoadReport.Stats stats(Duration window) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            long ok = 0;
+            long rejected = 0;
+            long shed = 0;
+            long errors = 0;
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Long> e : statuses.entrySet()) {
+                int status = e.getKey();
+                long n = e.getValue();
+                byStatus.put(status == FAILED ? "failed" : Integer.toString(status), n);
+                if (status >= 200 && status < 300) {
+                    ok += n;
+                } else if (status == 429 || status == 503) {
+                    shed += n;
+                } else if (status >= 400 && status < 500) {
+                    rejected += n;
+                } else {
+                    errors += n;
+                }
+            }
+            double mean = count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0);
+            return new LoadReport.Stats(count,
+                    round(count / (window.toNanos() / 1e9)),
+                    ok, rejected, shed, errors,
+                    count == 0 ? 0 : errors / (double) count,
+                    millis(mean),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.90)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(percentile(sorted, 0.999)),
+                    millis(count == 0 ? 0 : sorted[count - 1]),
+                    byStatus);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+
+        private static double millis(double nanos) {
+            return round(nanos / 1e6);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
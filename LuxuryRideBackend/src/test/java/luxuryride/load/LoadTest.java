@@ -0,0 +1,228 @@
+package luxuryride.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import luxuryride.LuxuryRideApplication;
+import luxuryride.load.LoadConfig.Operation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of the booking workflows: starts the application on a real
+ * port (embedded H2 unless {@code load.app-properties} points it
+ * elsewhere), seeds cars through the bulk import and customers through the
+ * clients API, then drives the operation mix from many concurrent clients
+ * (see {@link LoadConfig} and {@link LoadRunner}).
+ *
+ * Throughput, latency percentiles and outcomes per operation are written to
+ * {@code target/load-report.json}. Run with {@code mvn test -Pload}.
+ */
+@Tag("load")
+class LoadTest {
+
+    private static final String USER = "load";
+    private static final String PASSWORD = "load";
+    private static final String[] BRANDS = {
+            "Aston Martin", "Bentley", "BMW", "Ferrari", "Lamborghini",
+            "Maserati", "McLaren", "Mercedes-Benz", "Porsche", "Rolls-Royce"};
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void bookingWorkload() throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        Instant startedAt = Instant.now();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LuxuryRideApplication.class)
+                .run(arguments(config));
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = login(http, baseUrl);
+
+            long seedStart = System.nanoTime();
+            LoadRunner.Fleet fleet = seedCars(http, baseUrl, token, config);
+            List<String> customers = seedCustomers(http, baseUrl, token, config);
+            long seedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart);
+
+            LoadRunner runner = new LoadRunner(http, json, baseUrl, token, fleet, customers, config);
+            Map<Operation, LoadReport.Stats> byOperation = runner.run();
+            Map<String, LoadReport.Stats> operations = new LinkedHashMap<>();
+            byOperation.forEach((op, stats) -> operations.put(op.key(), stats));
+            LoadReport.Stats total = runner.total();
+
+            LoadReport report = new LoadReport(startedAt, commit(), System.getProperty("java.version"),
+                    settings(config),
+                    new LoadReport.Seeding(fleet.all().length, customers.size(), seedMillis),
+                    total, operations);
+            Files.createDirectories(config.report().toAbsolutePath().getParent());
+            json.writerWithDefaultPrettyPrinter().writeValue(config.report().toFile(), report);
+            System.out.printf("Load report: %s%n%s%n", config.report().toAbsolutePath(), summary(report));
+
+            assertTrue(total.requests() > 0, "no request completed in the measured window");
+            assertTrue(total.errorRate() <= config.maxErrorRate(),
+                    "error rate " + total.errorRate() + " above load.max-error-rate " + config.maxErrorRate());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Command-line style, so they win over application.properties; the
+     * per-caller rate limit is lifted because every client signs in as the
+     * same user (the concurrency limit stays).
+     */
+    private static String[] arguments(LoadConfig config) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("luxuryride.auth.admin.username", USER);
+        properties.put("luxuryride.auth.admin.password", PASSWORD);
+        properties.put("luxuryride.admission.rate", "1000000");
+        properties.put("luxuryride.admission.burst", "1000000");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(config.appProperties());
+        return properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+
+    private String login(HttpClient http, String baseUrl) throws Exception {
+        HttpResponse<String> response = post(http, baseUrl + "/api/auth/login", null, "application/json",
+                json.writeValueAsString(Map.of("username", USER, "password", PASSWORD)));
+        assertEquals(200, response.statusCode(), "login failed");
+        return json.readTree(response.body()).get("token").asText();
+    }
+
+    /** Imports the cars as NDJSON, then reads their ids back from the catalog. */
+    private LoadRunner.Fleet seedCars(HttpClient http, String baseUrl, String token, LoadConfig config)
+            throws Exception {
+        Random random = new Random(config.seed());
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < config.cars(); i++) {
+            Map<String, Object> car = new LinkedHashMap<>();
+            car.put("brand", BRANDS[random.nextInt(BRANDS.length)]);
+            car.put("model", "Model " + (i % 50));
+            car.put("plates", String.format(Locale.ROOT, "LT-%06d", i));
+            car.put("price", 80 + random.nextInt(1400));
+            car.put("available", true);
+            car.put("forRent", random.nextInt(10) < 8);
+            car.put("forSale", random.nextInt(10) < 3);
+            car.put("description", "Load test car " + i);
+            ndjson.append(json.writeValueAsString(car)).append('\n');
+        }
+        HttpResponse<String> imported = post(http, baseUrl + "/api/cars/import", token,
+                "application/x-ndjson", ndjson.toString());
+        assertEquals(200, imported.statusCode(), "car import failed: " + imported.body());
+
+        HttpResponse<String> catalog = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/cars")).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        List<Long> all = new ArrayList<>();
+        List<Long> forRent = new ArrayList<>();
+        List<Long> forSale = new ArrayList<>();
+        for (JsonNode car : json.readTree(catalog.body())) {
+            long id = car.get("id").asLong();
+            all.add(id);
+            if (car.get("forRent").asBoolean()) {
+                forRent.add(id);
+            }
+            if (car.get("forSale").asBoolean()) {
+                forSale.add(id);
+            }
+        }
+        assertTrue(!forRent.isEmpty() && !forSale.isEmpty(), "too few cars to rent and sell: " + imported.body());
+        return new LoadRunner.Fleet(toArray(all), toArray(forRent), toArray(forSale));
+    }
+
+    /** Customer records through the API; their emails are what the clients book under. */
+    private List<String> seedCustomers(HttpClient http, String baseUrl, String token, LoadConfig config)
+            throws Exception {
+        List<String> emails = IntStream.range(0, config.customers())
+                .mapToObj(i -> "customer" + i + "@load.test")
+                .toList();
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < emails.size(); i++) {
+                String body = json.writeValueAsString(Map.of(
+                        "name", "Customer " + i,
+                        "email", emails.get(i),
+                        "phone", String.format(Locale.ROOT, "+1555%07d", i),
+                        "drivingLicence", "DL" + i));
+                pool.submit(() -> post(http, baseUrl + "/api/clients", token, "application/json", body));
+            }
+        }
+        return emails;
+    }
+
+    private static HttpResponse<String> post(HttpClient http, String url, String token, String contentType,
+                                             String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private static LoadReport.Settings settings(LoadConfig config) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        config.mix().forEach((op, weight) -> mix.put(op.key(), weight));
+        return new LoadReport.Settings(config.cars(), config.customers(), config.clients(),
+                config.warmup().toMillis() / 1000.0, config.duration().toMillis() / 1000.0,
+                config.thinkTime().toNanos() / 1e6, mix, config.seed(), config.appProperties());
+    }
+
+    /** The commit under test, or null outside a git checkout. */
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String out = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 && !out.isEmpty() ? out : null;
+        } catch (IOException | InterruptedException e) {
+            return null;
+        }
+    }
+
+    private static String summary(LoadReport report) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-8s %10s %9s %9s %9s %6s %6s %6s%n",
+                "op", "req/s", "p50 ms", "p99 ms", "max ms", "rej", "shed", "err"));
+        report.operations().forEach((op, s) -> out.append(line(op, s)));
+        out.append(line("total", report.total()));
+        return out.toString();
+    }
+
+    private static String line(String op, LoadReport.Stats s) {
+        return String.format(Locale.ROOT, "%-8s %10.1f %9.2f %9.2f %9.2f %6d %6d %6d%n",
+                op, s.throughput(), s.p50Ms(), s.p99Ms(), s.maxMs(), s.rejected(), s.shed(), s.errors());
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
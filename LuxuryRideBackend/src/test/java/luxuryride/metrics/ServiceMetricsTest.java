@@ -0,0 +1,84 @@
+package luxuryride.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import luxuryride.entities.Car;
+import luxuryride.repository.CarRepository;
+import luxuryride.service.OperationRejectedException;
+import luxuryride.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServiceMetricsTest {
+
+    private static final LocalDate START = LocalDate.of(2031, 3, 1);
+
+    @Autowired
+    private ReservationService reservations;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void rentCarIsTimedByOutcome() {
+        Car car = carRepo.save(new Car(null, "Ferrari", "Roma", "MT-001", 400.0,
+                true, true, false, null));
+        long successBefore = count("rentCar", "success");
+        long notFoundBefore = count("rentCar", "car_not_found");
+        long takenBefore = count("rentCar", "not_available");
+
+        reservations.rentCar(car.getId(), "Ann", "ann@example.com", START, START.plusDays(2));
+        assertThrows(OperationRejectedException.class, () ->
+                reservations.rentCar(-1L, "Ann", "ann@example.com", START, START.plusDays(2)));
+        OperationRejectedException taken = assertThrows(OperationRejectedException.class, () ->
+                reservations.rentCar(car.getId(), "Ben", "ben@example.com", START.plusDays(1), START.plusDays(3)));
+
+        assertEquals(OperationRejectedException.Reason.NOT_AVAILABLE, taken.getReason());
+        assertEquals(successBefore + 1, count("rentCar", "success"));
+        assertEquals(notFoundBefore + 1, count("rentCar", "car_not_found"));
+        assertEquals(takenBefore + 1, count("rentCar", "not_available"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void requestsRecordTheirQueryCount() throws Exception {
+        mvc.perform(get("/api/reservations")).andExpect(status().isOk());
+
+        DistributionSummary queries = registry.get(QueryCountFilter.METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/api/reservations")
+                .summary();
+        assertTrue(queries.count() >= 1);
+        assertTrue(queries.max() >= 1, "the listing query should be counted");
+    }
+
+    private long count(String method, String outcome) {
+        Timer timer = registry.find(ServiceMetricsAspect.METRIC)
+                .tag("class", "ReservationService")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
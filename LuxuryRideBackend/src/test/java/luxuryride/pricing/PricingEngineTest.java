@@ -0,0 +1,116 @@
+package luxuryride.pricing;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.Quote;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.service.OperationRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+
+    // a Monday
+    private static final LocalDate JUNE_2 = LocalDate.of(2031, 6, 2);
+
+    private static final PricingRules RULES = PricingRules.parse(
+            "SATURDAY:1.5,SUNDAY:1.5",
+            "06-01/06-30:2,12-24/01-01:3",
+            "Ferrari:1.1",
+            "7:0.10,28:0.25");
+
+    @Test
+    void rulesMultiplyTheDailyRateDayByDay() {
+        PricingEngine engine = engine(RULES, JUNE_2.minusDays(10), 100);
+
+        // Mon-Fri in June: 5 days at 100 x 2
+        assertEquals(1000.0, engine.quote(car(1, "Porsche", 100, null), JUNE_2, JUNE_2.plusDays(4)).totalPrice());
+        // Mon-Sun: 5 x 200 + 2 x 300, then 10% off a week
+        Quote week = engine.quote(car(1, "Porsche", 100, null), JUNE_2, JUNE_2.plusDays(6));
+        assertEquals(7, week.days());
+        assertEquals(1600.0, week.subtotal());
+        assertEquals(160.0, week.discount());
+        assertEquals(1440.0, week.totalPrice());
+        // the brand rule on top, from the rental rate rather than the sale price
+        Quote ferrari = engine.quote(car(2, "ferrari", 250_000, 100.0), JUNE_2, JUNE_2);
+        assertEquals(110.0, ferrari.dailyRate());
+        assertEquals(220.0, ferrari.totalPrice());
+    }
+
+    @Test
+    void seasonsWrapTheYearEnd() {
+        PricingEngine engine = engine(RULES, LocalDate.of(2031, 12, 1), 60);
+
+        // Dec 31 2031 is a Wednesday, Jan 1 2032 a Thursday, Jan 2 a Friday
+        assertEquals(700.0, engine.quote(car(1, "BMW", 100, null),
+                LocalDate.of(2031, 12, 31), LocalDate.of(2032, 1, 2)).totalPrice());
+    }
+
+    @Test
+    void periodsBeyondTheTableCostTheSameDayByDay() {
+        PricingEngine withTable = engine(RULES, JUNE_2.minusYears(1), 730);
+        PricingEngine noTable = engine(RULES, JUNE_2.minusYears(1), 0);
+        CarSummary car = car(1, "Ferrari", 123.45, null);
+
+        for (int offset = -400; offset < 800; offset += 37) {
+            LocalDate start = JUNE_2.plusDays(offset);
+            LocalDate end = start.plusDays(offset & 31);
+            assertEquals(noTable.quote(car, start, end), withTable.quote(car, start, end), start + ".." + end);
+        }
+    }
+
+    @Test
+    void quotesByIdFollowTheCarsCurrentRate() {
+        PricingEngine engine = engine(PricingRules.NONE, JUNE_2, 30);
+        engine.load(List.of(car(1, "Porsche", 100, null),
+                new CarSummary(2L, "Porsche", "Model", "P2", 100, true, false, true)));
+
+        assertEquals(300.0, engine.quote(1L, JUNE_2, JUNE_2.plusDays(2)).orElseThrow().totalPrice());
+        engine.onCarChanged(new CarChangedEvent(1L, car(1, "Porsche", 100, 80.0)));
+        assertEquals(240.0, engine.quote(1L, JUNE_2, JUNE_2.plusDays(2)).orElseThrow().totalPrice());
+
+        assertTrue(engine.quote(3L, JUNE_2, JUNE_2).isEmpty());
+        OperationRejectedException notForRent = assertThrows(OperationRejectedException.class,
+                () -> engine.quote(2L, JUNE_2, JUNE_2));
+        assertEquals(OperationRejectedException.Reason.NOT_FOR_RENT, notForRent.getReason());
+        OperationRejectedException badPeriod = assertThrows(OperationRejectedException.class,
+                () -> engine.quote(1L, JUNE_2, JUNE_2.minusDays(1)));
+        assertEquals(OperationRejectedException.Reason.INVALID_PERIOD, badPeriod.getReason());
+
+        engine.onCarChanged(CarChangedEvent.deleted(1L));
+        assertTrue(engine.quote(1L, JUNE_2, JUNE_2.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    void rentalsLongerThanTheMaximumAreRejected() {
+        PricingEngine engine = engine(PricingRules.NONE, JUNE_2, 30);
+        engine.load(List.of(car(1, "Porsche", 100, null)));
+
+        assertEquals(731, engine.quote(1L, JUNE_2, JUNE_2.plusDays(730)).orElseThrow().days());
+        OperationRejectedException tooLong = assertThrows(OperationRejectedException.class,
+                () -> engine.quote(1L, JUNE_2, JUNE_2.plusDays(731)));
+        assertEquals(OperationRejectedException.Reason.INVALID_PERIOD, tooLong.getReason());
+        assertThrows(OperationRejectedException.class,
+                () -> engine.quote(car(1, "Porsche", 100, null), LocalDate.MIN, LocalDate.MAX));
+        assertThrows(OperationRejectedException.class, () -> engine.checkPeriod(JUNE_2, JUNE_2.plusYears(5)));
+    }
+
+    @Test
+    void badRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PricingRules.parse("", "", "Ferrari:0", ""));
+        assertThrows(IllegalArgumentException.class, () -> PricingRules.parse("", "", "", "7:1"));
+        assertThrows(RuntimeException.class, () -> PricingRules.parse("", "13-01/02-01:2", "", ""));
+    }
+
+    private static PricingEngine engine(PricingRules rules, LocalDate tableStart, int tableDays) {
+        return new PricingEngine(new CaffeineCacheManager(PricingEngine.CACHE), rules, tableStart, tableDays, 731);
+    }
+
+    private static CarSummary car(long id, String brand, double price, Double rentalPricePerDay) {
+        return new CarSummary(id, brand, "Model", "P" + id, price, true, true, false, null, rentalPricePerDay);
+    }
+}
@@ -0,0 +1,142 @@
+package luxuryride.service;
+
+import luxuryride.dto.CarSummary;
+import luxuryride.dto.ImportResult;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import luxuryride.repository.CarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "luxuryride.import.batch-size=3")
+@RecordApplicationEvents
+class CarImportServiceTest {
+
+    @Autowired
+    private CarImportService service;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void csvFieldsFollowRfc4180OnOneLine() {
+        assertEquals(List.of("a", "", "b,c", "say \"hi\"", ""),
+                CarImportService.parseCsvLine("a,,\"b,c\",\"say \"\"hi\"\"\","));
+        assertEquals(List.of(""), CarImportService.parseCsvLine(""));
+        assertThrows(IllegalArgumentException.class, () -> CarImportService.parseCsvLine("a,\"b,c"));
+    }
+
+    @Test
+    void malformedCsvRowsAreReportedByLine() throws IOException {
+        String tag = UUID.randomUUID().toString();
+        String csv = """
+                brand,model,plates,price,forRent
+                Porsche,911,%1$s-1,100,true
+                Porsche,"Cayenne,%1$s-2,100,true
+                Porsche,Taycan,%1$s-3,100
+                Porsche,Macan,%1$s-4,cheap,true
+                Porsche,Boxster,%1$s-5,100,maybe
+
+                Porsche,Panamera,%1$s-6,100,false
+                """.formatted(tag);
+
+        ImportResult result = service.importCars(body(csv), DataFormat.CSV);
+
+        assertEquals(6, result.rowsRead());
+        assertEquals(2, result.inserted());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(3L, 4L, 5L, 6L), result.errors().stream().map(ImportResult.RowError::line).toList());
+        assertEquals("unterminated quoted field", result.errors().get(0).message());
+        assertEquals(2, carsTagged(tag));
+    }
+
+    @Test
+    void ndjsonRowsWithUnknownFieldsAreRejected() throws IOException {
+        String tag = UUID.randomUUID().toString();
+        String ndjson = """
+                {"brand":"Ferrari","model":"Roma","plates":"%1$s-1","price":200}
+                {"brand":"Ferrari","model":"Purosangue","plates":"%1$s-2","price":300,"colour":"red"}
+                {"brand":"Ferrari","model":"296",
+                {"brand":"Ferrari","plates":"%1$s-4","price":300}
+                """.formatted(tag);
+
+        ImportResult result = service.importCars(body(ndjson), DataFormat.NDJSON);
+
+        assertEquals(1, result.inserted());
+        assertEquals(List.of(2L, 3L, 4L), result.errors().stream().map(ImportResult.RowError::line).toList());
+        assertTrue(result.errors().get(0).message().contains("colour"), result.errors().get(0).message());
+        assertEquals("model is required", result.errors().get(2).message());
+        assertEquals(1, carsTagged(tag));
+    }
+
+    @Test
+    void onlyTheRowsTheDatabaseRejectsFailTheirBatch() throws IOException {
+        String tag = UUID.randomUUID().toString();
+        // plates is a varchar(255): the database refuses the second row, in the first batch of three
+        String tooLong = tag + "x".repeat(300);
+        String ndjson = """
+                {"brand":"Bentley","model":"A","plates":"%1$s-1","price":100}
+                {"brand":"Bentley","model":"B","plates":"%2$s","price":100}
+                {"brand":"Bentley","model":"C","plates":"%1$s-3","price":100}
+                {"brand":"Bentley","model":"D","plates":"%1$s-4","price":100}
+                """.formatted(tag, tooLong);
+
+        ImportResult result = service.importCars(body(ndjson), DataFormat.NDJSON);
+
+        assertEquals(4, result.rowsRead());
+        assertEquals(3, result.inserted());
+        assertEquals(1, result.failed());
+        assertEquals(2L, result.errors().get(0).line());
+        assertTrue(result.errors().get(0).message().startsWith("Rejected by the database"),
+                result.errors().get(0).message());
+        assertEquals(3, carsTagged(tag));
+    }
+
+    @Test
+    void eachBatchIsAnnouncedOnce() throws IOException {
+        String tag = UUID.randomUUID().toString().replace("-", "");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 7; i++) {
+            ndjson.append("""
+                    {"brand":"Imported%1$s","model":"M%2$d","plates":"%1$s-%2$d","price":100}
+                    """.formatted(tag, i));
+        }
+
+        ImportResult result = service.importCars(body(ndjson.toString()), DataFormat.NDJSON);
+
+        assertEquals(7, result.inserted());
+        List<CarsImportedEvent> batches = events.stream(CarsImportedEvent.class).toList();
+        assertEquals(List.of(3, 3, 1), batches.stream().map(e -> e.cars().size()).toList());
+        assertTrue(batches.stream().flatMap(e -> e.cars().stream()).map(CarSummary::id).allMatch(id -> id != null));
+        assertEquals(0, events.stream(CarChangedEvent.class).count());
+        // the indexes took the batches in
+        assertEquals(7, carService.search("imported" + tag, 20).size());
+    }
+
+    private long carsTagged(String tag) {
+        return carRepo.findAll().stream()
+                .filter(car -> car.getPlates() != null && car.getPlates().startsWith(tag))
+                .count();
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
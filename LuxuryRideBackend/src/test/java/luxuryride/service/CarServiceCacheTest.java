@@ -0,0 +1,124 @@
+package luxuryride.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import luxuryride.dto.CachedJson;
+import luxuryride.entities.Car;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.index.AvailabilityIndex;
+import luxuryride.index.CarFacetIndex;
+import luxuryride.index.CarSearchIndex;
+import luxuryride.pricing.PricingEngine;
+import luxuryride.repository.CarRepository;
+import luxuryride.stream.CarChangeStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A read that loads a car before an update commits, and caches it after
+ * the update's eviction, must not leave the old car in the cache.
+ */
+@SpringBootTest
+class CarServiceCacheTest {
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private PricingEngine pricing;
+
+    @Autowired
+    private CarChangeStream changeStream;
+
+    @Autowired
+    private CarCheckout checkout;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // the next findById stops after loading, until released
+    private final AtomicBoolean pauseNextLoad = new AtomicBoolean();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private CarService service;
+    private Long carId;
+
+    @BeforeEach
+    void setUp() {
+        CarService[] self = new CarService[1];
+        // its own caches, and its own changes delivered straight back to it
+        ApplicationEventPublisher events = event -> {
+            if (event instanceof CarChangedEvent change) {
+                self[0].onCarChanged(change);
+            }
+        };
+        service = new CarService(pausing(carRepo), new AvailabilityIndex(), new CarSearchIndex(),
+                new CarFacetIndex(new double[]{100, 250, 500, 1000}), pricing, changeStream, checkout, events,
+                objectMapper,
+                new CaffeineCacheManager(CarService.CAR_CACHE, CarService.CAR_JSON_CACHE, CarService.CATALOG_CACHE));
+        self[0] = service;
+        carId = carRepo.save(new Car(null, "Maserati", "MC20", "CC-" + System.nanoTime(), 100.0,
+                true, true, false, null)).getId();
+    }
+
+    @Test
+    void carJsonLoadedBeforeAnUpdateIsNotLeftCached() throws Exception {
+        readAcrossAnUpdate(id -> service.getCarJson(id));
+
+        CachedJson json = service.getCarJson(carId).orElseThrow();
+        assertTrue(new String(json.body(), StandardCharsets.UTF_8).contains("\"price\":200.0"));
+    }
+
+    @Test
+    void carLoadedBeforeAnUpdateIsNotLeftCached() throws Exception {
+        readAcrossAnUpdate(id -> service.getCarById(id));
+
+        assertEquals(200.0, service.getCarById(carId).orElseThrow().getPrice());
+    }
+
+    /** Start a read, let it load the car, update the car, then let the read cache what it loaded. */
+    private void readAcrossAnUpdate(Function<Long, ?> read) throws Exception {
+        pauseNextLoad.set(true);
+        Thread reader = Thread.ofPlatform().start(() -> read.apply(carId));
+        assertTrue(loaded.await(10, TimeUnit.SECONDS));
+
+        Car update = carRepo.findById(carId).orElseThrow();
+        update.setPrice(200.0);
+        service.updateCar(carId, update);
+
+        release.countDown();
+        reader.join(10_000);
+        assertFalse(reader.isAlive());
+    }
+
+    private CarRepository pausing(CarRepository repo) {
+        return (CarRepository) Proxy.newProxyInstance(CarRepository.class.getClassLoader(),
+                new Class<?>[]{CarRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(repo, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                    if (method.getName().equals("findById") && pauseNextLoad.compareAndSet(true, false)) {
+                        loaded.countDown();
+                        release.await(10, TimeUnit.SECONDS);
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,192 @@
+package luxuryride.service;
+
+import luxuryride.entities.Car;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CheckoutConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarCheckout checkout;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private PurchaseRepository purchaseRepo;
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    @Test
+    void sameCarHasExactlyOneBuyer() throws Exception {
+        Long carId = newCar().getId();
+
+        int winners = hammer(THREADS, i ->
+                purchaseService.buyCar(carId, "Buyer " + i, "buyer" + i + "@example.com", "Card"));
+
+        assertEquals(1, winners);
+        assertEquals(1, purchaseRepo.findAll().stream()
+                .filter(p -> p.getCar().getId().equals(carId)).count());
+        Car sold = carRepo.findById(carId).orElseThrow();
+        assertFalse(sold.isForSale());
+    }
+
+    @Test
+    void sameCarAndDatesHaveExactlyOneRenter() throws Exception {
+        Long carId = newCar().getId();
+        LocalDate start = LocalDate.of(2031, 3, 1);
+
+        int winners = hammer(THREADS, i ->
+                reservationService.rentCar(carId, "Renter " + i, "renter" + i + "@example.com",
+                        start, start.plusDays(3)));
+
+        assertEquals(1, winners);
+        assertEquals(1, reservationRepo.findAll().stream()
+                .filter(r -> r.getCar().getId().equals(carId)).count());
+    }
+
+    @Test
+    void carEditsDontLoseToRentals() throws Exception {
+        Long carId = newCar().getId();
+        LocalDate start = LocalDate.of(2032, 1, 5);
+
+        // even threads rent the car for a week of their own, odd threads edit its price
+        int winners = hammer(THREADS, i -> {
+            if (i % 2 == 0) {
+                LocalDate week = start.plusWeeks(i);
+                reservationService.rentCar(carId, "Renter " + i, "renter" + i + "@example.com",
+                        week, week.plusDays(2));
+            } else {
+                carService.updateCar(carId, new Car(null, "Ferrari", "Roma", "FR-EDIT", 300.0 + i,
+                        true, true, true, null));
+            }
+        });
+
+        assertEquals(THREADS, winners);
+        assertEquals(THREADS / 2, reservationRepo.findAll().stream()
+                .filter(r -> r.getCar().getId().equals(carId)).count());
+        assertTrue(carRepo.findById(carId).orElseThrow().getPrice() > 300.0);
+    }
+
+    @Test
+    void purchaseIsDeletedOnce() throws Exception {
+        Long carId = newCar().getId();
+        Long purchaseId = purchaseService.buyCar(carId, "Buyer", "buyer@example.com", "Card").getId();
+        AtomicInteger deleted = new AtomicInteger();
+
+        hammer(THREADS, i -> {
+            if (purchaseService.deletePurchase(purchaseId)) {
+                deleted.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, deleted.get());
+        assertTrue(purchaseRepo.findById(purchaseId).isEmpty());
+    }
+
+    @Test
+    void differentCarsAllSucceed() throws Exception {
+        List<Long> carIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            carIds.add(newCar().getId());
+        }
+
+        int winners = hammer(THREADS, i ->
+                purchaseService.buyCar(carIds.get(i), "Buyer " + i, "buyer" + i + "@example.com", "Card"));
+
+        assertEquals(THREADS, winners);
+    }
+
+    @Test
+    void optimisticConflictsAreRetriedThenRethrown() {
+        AtomicInteger calls = new AtomicInteger();
+        String result = checkout.execute(1L, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Car.class, 1L);
+            }
+            return "ok";
+        }, r -> { });
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+
+        calls.set(0);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                checkout.execute(1L, () -> {
+                    calls.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException(Car.class, 1L);
+                }, r -> { }));
+        assertEquals(3, calls.get());
+    }
+
+    private Car newCar() {
+        return carRepo.save(new Car(null, "Ferrari", "Roma", "FR-" + System.nanoTime(), 250.0,
+                true, true, true, null));
+    }
+
+    /** Run the task from {@code threads} threads released at once; returns how many succeeded. */
+    private static int hammer(int threads, IndexedTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int n = i;
+                Callable<Boolean> call = () -> {
+                    start.await();
+                    try {
+                        task.run(n);
+                        return true;
+                    } catch (IllegalArgumentException ex) {
+                        return false;
+                    }
+                };
+                results.add(pool.submit(call));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> f : results) {
+                if (f.get()) {
+                    winners++;
+                }
+            }
+            return winners;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int i);
+    }
+}
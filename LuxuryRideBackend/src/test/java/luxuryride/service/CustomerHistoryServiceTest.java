@@ -0,0 +1,131 @@
+package luxuryride.service;
+
+import luxuryride.dto.HistoryEntry;
+import luxuryride.dto.HistoryPage;
+import luxuryride.entities.Car;
+import luxuryride.entities.Purchase;
+import luxuryride.entities.Reservation;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CustomerHistoryServiceTest {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2030, 7, 1);
+
+    @Autowired
+    private CustomerHistoryService service;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private PurchaseRepository purchaseRepo;
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        car = carRepo.save(new Car(null, "Porsche", "911", "HI-001", 100.0, true, true, true, null));
+    }
+
+    @Test
+    void pagesSplitEqualDatesAcrossBothStreams() {
+        String email = "equal-dates@example.com";
+        // three purchases and three reservations on the same day, around older and newer entries
+        String newer = reservation(email, JULY_1.plusDays(1));
+        String p1 = purchase(email, JULY_1);
+        String r1 = reservation(email, JULY_1);
+        String p2 = purchase(email, JULY_1);
+        String r2 = reservation(email, JULY_1);
+        String p3 = purchase(email, JULY_1);
+        String r3 = reservation(email, JULY_1);
+        String older = purchase(email, JULY_1.minusDays(1));
+
+        List<String> newestFirst = List.of(newer, p3, p2, p1, r3, r2, r1, older);
+        for (int limit = 1; limit <= 9; limit++) {
+            assertEquals(newestFirst, walk(email, limit), "limit " + limit);
+        }
+    }
+
+    @Test
+    void undatedPurchasesComeLast() {
+        String email = "undated@example.com";
+        String undated1 = purchase(email, null);
+        String dated = purchase(email, JULY_1);
+        String undated2 = purchase(email, null);
+        String reservation = reservation(email, JULY_1.minusYears(10));
+
+        List<String> newestFirst = List.of(dated, reservation, undated2, undated1);
+        for (int limit = 1; limit <= 5; limit++) {
+            assertEquals(newestFirst, walk(email, limit), "limit " + limit);
+        }
+        HistoryPage first = service.getHistory(email, null, 3);
+        assertNull(first.items().get(2).date());
+        assertNotNull(first.nextCursor());
+    }
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        CustomerHistoryService.Position dated =
+                new CustomerHistoryService.Position(JULY_1, HistoryEntry.Type.RESERVATION, 42);
+        CustomerHistoryService.Position undated =
+                new CustomerHistoryService.Position(null, HistoryEntry.Type.PURCHASE, 7);
+        assertEquals(dated, CustomerHistoryService.Position.decode(dated.encode()));
+        assertEquals(undated, CustomerHistoryService.Position.decode(undated.encode()));
+
+        assertThrows(IllegalArgumentException.class, () -> service.getHistory("x@example.com", "%%%", 10));
+        assertThrows(IllegalArgumentException.class, () -> CustomerHistoryService.Position.decode("bm9wZQ"));
+    }
+
+    @Test
+    void idBoundTakesAllOrNoneOfTheOtherTypeOnTheCursorsDay() {
+        CustomerHistoryService.Position afterPurchase =
+                new CustomerHistoryService.Position(JULY_1, HistoryEntry.Type.PURCHASE, 10);
+        assertEquals(10, afterPurchase.idBoundFor(HistoryEntry.Type.PURCHASE));
+        assertEquals(Long.MAX_VALUE, afterPurchase.idBoundFor(HistoryEntry.Type.RESERVATION));
+
+        CustomerHistoryService.Position afterReservation =
+                new CustomerHistoryService.Position(JULY_1, HistoryEntry.Type.RESERVATION, 10);
+        assertEquals(Long.MIN_VALUE, afterReservation.idBoundFor(HistoryEntry.Type.PURCHASE));
+        assertEquals(10, afterReservation.idBoundFor(HistoryEntry.Type.RESERVATION));
+    }
+
+    /** Every entry as type and id (the two tables number independently), following nextCursor to the end. */
+    private List<String> walk(String email, int limit) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            HistoryPage page = service.getHistory(email, cursor, limit);
+            assertTrue(page.items().size() <= limit);
+            page.items().forEach(e -> ids.add(e.type() + "#" + e.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private String purchase(String email, LocalDate date) {
+        Purchase purchase = new Purchase(null, car, "Customer", email, date, 1000.0, "card");
+        return "PURCHASE#" + purchaseRepo.save(purchase).getId();
+    }
+
+    private String reservation(String email, LocalDate start) {
+        Reservation reservation = new Reservation(null, car, "Customer", email, start, start.plusDays(1),
+                200.0, Reservation.Status.CONFIRMED);
+        return "RESERVATION#" + reservationRepo.save(reservation).getId();
+    }
+}
@@ -0,0 +1,131 @@
+package luxuryride.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import luxuryride.entities.Car;
+import luxuryride.entities.Purchase;
+import luxuryride.entities.Reservation;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.PurchaseRepository;
+import luxuryride.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Exports of rows in 2045, a year no other test writes to. */
+@SpringBootTest
+class ExportServiceTest {
+
+    private static final LocalDate JAN_10 = LocalDate.of(2045, 1, 10);
+    private static final LocalDate FEB_10 = LocalDate.of(2045, 2, 10);
+    private static final LocalDate MAR_10 = LocalDate.of(2045, 3, 10);
+
+    @Autowired
+    private ExportService service;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private PurchaseRepository purchaseRepo;
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        car = carRepo.save(new Car(null, "Aston Martin", "DB12", "EX-001", 250_000.0, true, true, true, null));
+        // each test exports only its own rows
+        purchaseRepo.deleteAll(purchaseRepo.findAll().stream()
+                .filter(p -> p.getPurchaseDate() != null && p.getPurchaseDate().getYear() == 2045).toList());
+        reservationRepo.deleteAll(reservationRepo.findAll().stream()
+                .filter(r -> r.getStartDate().getYear() == 2045).toList());
+    }
+
+    @Test
+    void csvHasAHeaderAndQuotesAwkwardFields() {
+        purchase("Ann", JAN_10);
+        Long feb = purchase("Doe, \"JD\" John", FEB_10);
+        purchase("Cid", MAR_10);
+
+        List<String> lines = lines(out -> service.exportPurchases(
+                LocalDate.of(2045, 2, 1), LocalDate.of(2045, 2, 28), DataFormat.CSV, out));
+
+        assertEquals(List.of(
+                "id,carId,carBrand,carModel,carPlates,customerName,customerEmail,purchaseDate,amount,paymentMethod",
+                feb + "," + car.getId() + ",Aston Martin,DB12,EX-001,\"Doe, \"\"JD\"\" John\",buyer@example.com,"
+                        + "2045-02-10,250000.0,card"), lines);
+    }
+
+    @Test
+    void ndjsonIsOneObjectPerLineInIdOrder() throws Exception {
+        purchase("Ann", JAN_10);
+        Long feb = purchase("Bob", FEB_10);
+        Long mar = purchase("Cid", MAR_10);
+
+        List<String> lines = lines(out -> service.exportPurchases(FEB_10, null, DataFormat.NDJSON, out));
+
+        assertEquals(2, lines.size(), lines.toString());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals(feb, first.get("id").asLong());
+        assertEquals("Bob", first.get("customerName").asText());
+        assertEquals("2045-02-10", first.get("purchaseDate").asText());
+        assertEquals(mar, second.get("id").asLong());
+    }
+
+    @Test
+    void reservationsAreFilteredByStartDateWithInclusiveBounds() throws Exception {
+        reservation(JAN_10);
+        Long feb = reservation(FEB_10);
+        reservation(MAR_10);
+
+        List<String> sameDay = lines(out -> service.exportReservations(FEB_10, FEB_10, DataFormat.NDJSON, out));
+        assertEquals(1, sameDay.size(), sameDay.toString());
+        JsonNode row = objectMapper.readTree(sameDay.get(0));
+        assertEquals(feb, row.get("id").asLong());
+        assertEquals("CONFIRMED", row.get("status").asText());
+
+        List<String> csv = lines(out -> service.exportReservations(
+                LocalDate.of(2045, 1, 1), FEB_10.minusDays(1), DataFormat.CSV, out));
+        assertEquals(2, csv.size(), csv.toString());
+        assertTrue(csv.get(0).startsWith("id,carId,"), csv.get(0));
+        assertTrue(csv.get(1).contains(",2045-01-10,2045-01-12,"), csv.get(1));
+    }
+
+    private interface Export {
+        void to(ByteArrayOutputStream out);
+    }
+
+    private static List<String> lines(Export export) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.to(out);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.isEmpty() || body.endsWith("\n"), body);
+        return body.isEmpty() ? List.of() : new ArrayList<>(List.of(body.split("\n")));
+    }
+
+    private Long purchase(String customer, LocalDate date) {
+        return purchaseRepo.save(new Purchase(null, car, customer, "buyer@example.com", date,
+                250_000.0, "card")).getId();
+    }
+
+    private Long reservation(LocalDate start) {
+        return reservationRepo.save(new Reservation(null, car, "Renter", "renter@example.com", start,
+                start.plusDays(2), 600.0, Reservation.Status.CONFIRMED)).getId();
+    }
+}
@@ -0,0 +1,126 @@
+package luxuryride.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import luxuryride.entities.Payment;
+import luxuryride.enums.PaymantType;
+import luxuryride.enums.PaymentMethod;
+import luxuryride.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "luxuryride.payments.write-behind=true",
+        "luxuryride.payments.batch-size=50",
+        "luxuryride.payments.flush-interval=20ms",
+        "luxuryride.payments.spill-file=target/payments-spill-test.ndjson"
+})
+class PaymentWriterTest {
+
+    @Autowired
+    private PaymentService service;
+
+    @Autowired
+    private PaymentWriter writer;
+
+    @Autowired
+    private PaymentRepository repo;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void queuedPaymentsAreStoredInBatchesAndCanBeAwaited() throws Exception {
+        long before = repo.count();
+        List<CompletableFuture<Payment>> stored = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            stored.add(service.recordPayment(payment(10.0 + i)));
+        }
+        Payment last = payment(1.0);
+        Payment returned = service.createPayment(last);
+
+        assertTrue(service.awaitFlush(Duration.ofSeconds(10)));
+        assertEquals(before + 121, repo.count());
+        assertTrue(stored.stream().allMatch(f -> f.getNow(null).getId() != null));
+        // the writer stores a copy; the caller's payment is never touched from its thread
+        assertSame(last, returned);
+        assertNull(last.getId());
+    }
+
+    @Test
+    void paymentsSubmittedWhileStoppingAreStoredOrSpilled() throws Exception {
+        Path spillFile = Path.of("target/payments-spill-race.ndjson");
+        Files.deleteIfExists(spillFile);
+        PaymentWriter stopping = new PaymentWriter(em, transactionManager, objectMapper, new SimpleMeterRegistry(),
+                true, 100, 50, Duration.ofMillis(5), Duration.ofMillis(100), Duration.ofMillis(50), spillFile);
+        stopping.start();
+
+        List<CompletableFuture<Payment>> futures = new CopyOnWriteArrayList<>();
+        CountDownLatch submitting = new CountDownLatch(4);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                submitting.countDown();
+                CompletableFuture<Payment> queued;
+                while ((queued = stopping.submit(payment(1.0))) != null) {
+                    futures.add(queued);
+                }
+            }));
+        }
+        submitting.await();
+        Thread.sleep(20);
+        stopping.stop();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertFalse(futures.isEmpty());
+        assertTrue(futures.stream().allMatch(CompletableFuture::isDone), "every queued payment stored or spilled");
+        assertTrue(stopping.awaitFlush(Duration.ZERO));
+        Files.deleteIfExists(spillFile);
+    }
+
+    @Test
+    void spilledPaymentsAreReplayedOnce() throws Exception {
+        long before = repo.count();
+        writer.spill(List.of(
+                new PaymentWriter.Pending(payment(500.0), new CompletableFuture<>()),
+                new PaymentWriter.Pending(payment(600.0), new CompletableFuture<>())));
+        assertTrue(Files.exists(Path.of("target/payments-spill-test.ndjson")));
+
+        writer.replaySpill();
+        writer.replaySpill();
+
+        assertEquals(before + 2, repo.count());
+        assertFalse(Files.exists(Path.of("target/payments-spill-test.ndjson")));
+    }
+
+    private static Payment payment(double amount) {
+        Payment payment = new Payment(PaymentMethod.CARD);
+        payment.setPaymantType(PaymantType.RENT);
+        payment.setAmount(amount);
+        payment.setPaymentDate(LocalDate.of(2030, 1, 1));
+        return payment;
+    }
+}
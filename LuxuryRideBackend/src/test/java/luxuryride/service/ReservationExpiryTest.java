@@ -0,0 +1,145 @@
+package luxuryride.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import luxuryride.entities.Car;
+import luxuryride.entities.Reservation;
+import luxuryride.index.AvailabilityIndex;
+import luxuryride.repository.CarRepository;
+import luxuryride.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Holds of zero length, so every PENDING reservation is due at once. */
+@SpringBootTest(properties = {
+        "luxuryride.reservations.pending-hold=0s",
+        "luxuryride.reservations.expiry-interval=1h"
+})
+class ReservationExpiryTest {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2031, 7, 1);
+
+    @Autowired
+    private ReservationExpiry expiry;
+
+    @Autowired
+    private ReservationService service;
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private AvailabilityIndex availability;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long carId;
+
+    @BeforeEach
+    void setUp() {
+        expiry.expireDue();
+        carId = carRepo.save(new Car(null, "Aston Martin", "DB12", "EX-" + System.nanoTime(), 200.0,
+                true, true, false, null)).getId();
+    }
+
+    @Test
+    void expiredHoldsAreCancelledAndTheirDatesReleased() {
+        Reservation pending = service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(2));
+        assertNotNull(pending.getCreatedAt());
+        double before = registry.counter("luxuryride.reservations.expired").count();
+
+        assertEquals(1, expiry.expireDue());
+
+        assertEquals(Reservation.Status.CANCELLED, reservationRepo.findById(pending.getId()).orElseThrow().getStatus());
+        assertEquals(before + 1, registry.counter("luxuryride.reservations.expired").count());
+        assertDoesNotThrow(() -> service.rentCar(carId, "Bob", "bob@example.com", JULY_1, JULY_1.plusDays(2)));
+    }
+
+    @Test
+    void confirmedReservationsAreLeftAlone() {
+        Reservation r = service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(2));
+        r.setStatus(Reservation.Status.CONFIRMED);
+        service.updateReservation(r.getId(), r);
+
+        assertEquals(0, expiry.expireDue());
+        assertEquals(Reservation.Status.CONFIRMED, reservationRepo.findById(r.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void holdsAreReloadedFromTheTable() {
+        Car car = carRepo.findById(carId).orElseThrow();
+        Reservation stored = reservationRepo.save(new Reservation(null, car, "Carol", "carol@example.com",
+                JULY_1, JULY_1, 200.0, Reservation.Status.PENDING));
+
+        expiry.load();
+
+        assertEquals(1, expiry.expireDue());
+        assertEquals(Reservation.Status.CANCELLED, reservationRepo.findById(stored.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void holdsOfAFailedBatchAreRetried() {
+        // a second expiry over the same table, whose transactions fail while the flag is up
+        AtomicBoolean databaseDown = new AtomicBoolean();
+        PlatformTransactionManager flaky = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                if (databaseDown.get()) {
+                    throw new DataAccessResourceFailureException("database down");
+                }
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+        ReservationExpiry retrying = new ReservationExpiry(reservationRepo, availability,
+                new CarCheckout(flaky, 16, 1, 0), events, new SimpleMeterRegistry(),
+                Duration.ZERO, 10, Duration.ZERO);
+        Car car = carRepo.findById(carId).orElseThrow();
+        Reservation stored = reservationRepo.save(new Reservation(null, car, "Dave", "dave@example.com",
+                JULY_1, JULY_1, 200.0, Reservation.Status.PENDING));
+        retrying.load();
+        assertEquals(1, retrying.size());
+
+        databaseDown.set(true);
+        assertEquals(0, retrying.expireDue());
+        assertEquals(1, retrying.size(), "re-armed");
+        assertEquals(Reservation.Status.PENDING, reservationRepo.findById(stored.getId()).orElseThrow().getStatus());
+
+        databaseDown.set(false);
+        assertEquals(1, retrying.expireDue());
+        assertEquals(0, retrying.size());
+        assertEquals(Reservation.Status.CANCELLED, reservationRepo.findById(stored.getId()).orElseThrow().getStatus());
+    }
+}
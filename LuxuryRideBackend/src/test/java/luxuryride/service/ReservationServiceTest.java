@@ -0,0 +1,145 @@
+package luxuryride.service;
+
+import luxuryride.entities.Car;
+import luxuryride.entities.Reservation;
+import luxuryride.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReservationServiceTest {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2030, 7, 1);
+
+    @Autowired
+    private ReservationService service;
+
+    @Autowired
+    private CarRepository carRepo;
+
+    private Long carId;
+
+    @BeforeEach
+    void setUp() {
+        Car car = carRepo.save(new Car(null, "Porsche", "911", "AA-001", 100.0,
+                true, true, false, "Red convertible"));
+        carId = car.getId();
+    }
+
+    @Test
+    void futureBookingDoesNotBlockOtherDates() {
+        service.rentCar(carId, "Alice", "alice@example.com", JULY_1.plusDays(30), JULY_1.plusDays(35));
+
+        Reservation r = service.rentCar(carId, "Bob", "bob@example.com", JULY_1, JULY_1.plusDays(4));
+
+        assertEquals(500.0, r.getTotalPrice());
+        assertTrue(carRepo.findById(carId).orElseThrow().isAvailable());
+    }
+
+    @Test
+    void overlappingRentalIsRejected() {
+        service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(4));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                service.rentCar(carId, "Bob", "bob@example.com", JULY_1.plusDays(4), JULY_1.plusDays(6)));
+        assertDoesNotThrow(() ->
+                service.rentCar(carId, "Bob", "bob@example.com", JULY_1.plusDays(5), JULY_1.plusDays(6)));
+    }
+
+    @Test
+    void cancellingAReservationReleasesItsDates() {
+        Reservation r = service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(4));
+
+        Reservation cancel = new Reservation();
+        cancel.setStartDate(r.getStartDate());
+        cancel.setEndDate(r.getEndDate());
+        cancel.setTotalPrice(r.getTotalPrice());
+        cancel.setStatus(Reservation.Status.CANCELLED);
+        service.updateReservation(r.getId(), cancel);
+
+        assertDoesNotThrow(() ->
+                service.rentCar(carId, "Bob", "bob@example.com", JULY_1, JULY_1.plusDays(4)));
+    }
+
+    @Test
+    void deletingAReservationReleasesItsDates() {
+        Reservation r = service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(4));
+        assertTrue(service.deleteReservation(r.getId()));
+
+        assertDoesNotThrow(() ->
+                service.rentCar(carId, "Bob", "bob@example.com", JULY_1.plusDays(2), JULY_1.plusDays(3)));
+    }
+
+    @Test
+    void movingOntoAnotherBookingIsRejected() {
+        service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(4));
+        Reservation r = service.rentCar(carId, "Bob", "bob@example.com", JULY_1.plusDays(10), JULY_1.plusDays(12));
+
+        Reservation move = new Reservation();
+        move.setStartDate(JULY_1.plusDays(3));
+        move.setEndDate(JULY_1.plusDays(11));
+        move.setStatus(Reservation.Status.CONFIRMED);
+
+        assertThrows(IllegalArgumentException.class, () -> service.updateReservation(r.getId(), move));
+    }
+
+    @Test
+    void indexIsRebuiltFromTheTable() {
+        service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(4));
+
+        service.loadAvailabilityIndex();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                service.rentCar(carId, "Bob", "bob@example.com", JULY_1, JULY_1));
+    }
+
+    @Test
+    void rentalsLongerThanTheMaximumAreRejected() {
+        OperationRejectedException tooLong = assertThrows(OperationRejectedException.class, () ->
+                service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusYears(5)));
+        assertEquals(OperationRejectedException.Reason.INVALID_PERIOD, tooLong.getReason());
+        assertDoesNotThrow(() ->
+                service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(730)));
+    }
+
+    @Test
+    void rentalsAndCancellationsShowInTheOccupancyCalendar() {
+        Reservation r = service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.plusDays(4));
+        assertEquals(5, bookedDays());
+
+        Reservation cancel = new Reservation();
+        cancel.setStartDate(r.getStartDate());
+        cancel.setEndDate(r.getEndDate());
+        cancel.setTotalPrice(r.getTotalPrice());
+        cancel.setStatus(Reservation.Status.CANCELLED);
+        service.updateReservation(r.getId(), cancel);
+        assertEquals(0, bookedDays());
+
+        assertThrows(IllegalArgumentException.class, () ->
+                service.getOccupancy(JULY_1, JULY_1.plusYears(3)));
+    }
+
+    private int bookedDays() {
+        return service.getOccupancy(JULY_1, JULY_1.plusDays(30)).cars().stream()
+                .filter(c -> c.carId().equals(carId))
+                .findFirst().orElseThrow()
+                .bookedDays();
+    }
+
+    @Test
+    void invalidPeriodAndNonRentalCarsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () ->
+                service.rentCar(carId, "Alice", "alice@example.com", JULY_1, JULY_1.minusDays(1)));
+
+        Car saleOnly = carRepo.save(new Car(null, "BMW", "M5", "AA-002", 90.0,
+                true, false, true, null));
+        assertThrows(IllegalArgumentException.class, () ->
+                service.rentCar(saleOnly.getId(), "Alice", "alice@example.com", JULY_1, JULY_1));
+    }
+}
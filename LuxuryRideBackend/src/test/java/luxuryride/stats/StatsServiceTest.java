@@ -0,0 +1,101 @@
+package luxuryride.stats;
+
+import luxuryride.dto.AdminStats;
+import luxuryride.dto.RevenueTotals;
+import luxuryride.entities.Car;
+import luxuryride.entities.Purchase;
+import luxuryride.entities.Reservation;
+import luxuryride.service.CarService;
+import luxuryride.service.PurchaseService;
+import luxuryride.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class StatsServiceTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2040, 5, 1);
+
+    @Autowired
+    private StatsService stats;
+
+    @Autowired
+    private CarService cars;
+
+    @Autowired
+    private ReservationService reservations;
+
+    @Autowired
+    private PurchaseService purchases;
+
+    @BeforeEach
+    void reconcile() {
+        // other tests write through the repositories, which publishes no events
+        stats.rebuild();
+    }
+
+    @Test
+    void rollupsFollowEveryChangeAndMatchARebuild() {
+        AdminStats before = stats.getStats();
+
+        Car rental = cars.createCar(new Car(null, "Bentley", "Continental", "ST-001", 300.0,
+                true, true, false, null));
+        Car forSale = cars.createCar(new Car(null, "Rolls-Royce", "Ghost", "ST-002", 250_000.0,
+                true, false, true, null));
+        Reservation booked = reservations.rentCar(rental.getId(), "Ann", "ann@example.com",
+                MAY_1, MAY_1.plusDays(2));
+        Reservation cancelled = reservations.rentCar(rental.getId(), "Ben", "ben@example.com",
+                MAY_1.plusDays(10), MAY_1.plusDays(10));
+        Purchase sold = purchases.buyCar(forSale.getId(), "Cid", "cid@example.com", "CARD");
+
+        AdminStats after = stats.getStats();
+        assertEquals(before.fleet().total() + 2, after.fleet().total());
+        assertEquals(before.fleet().forRent() + 1, after.fleet().forRent());
+        assertEquals(before.fleet().forSale(), after.fleet().forSale(), "the sold car left the for-sale count");
+        assertEquals(before.fleet().available() + 1, after.fleet().available());
+        assertEquals(before.reservationsByStatus().get(Reservation.Status.PENDING) + 2,
+                after.reservationsByStatus().get(Reservation.Status.PENDING));
+        assertEquals(before.today().purchases() + 1, after.today().purchases());
+        assertEquals(before.today().purchaseRevenue() + 250_000.0, after.today().purchaseRevenue());
+
+        RevenueTotals may = stats.getMonthly(YearMonth.of(2040, 5), YearMonth.of(2040, 5)).get(0);
+        assertEquals(2, may.reservations());
+        assertEquals(900.0 + 300.0, may.reservationRevenue());
+
+        Reservation cancel = new Reservation();
+        cancel.setStartDate(cancelled.getStartDate());
+        cancel.setEndDate(cancelled.getEndDate());
+        cancel.setTotalPrice(cancelled.getTotalPrice());
+        cancel.setStatus(Reservation.Status.CANCELLED);
+        reservations.updateReservation(cancelled.getId(), cancel);
+        purchases.deletePurchase(sold.getId());
+
+        List<RevenueTotals> days = stats.getDaily(MAY_1, MAY_1.plusDays(10));
+        assertEquals(11, days.size());
+        assertEquals(1, days.get(0).reservations());
+        assertEquals(900.0, days.get(0).revenue());
+        assertEquals(0, days.get(10).reservations(), "cancelled rentals earn nothing");
+        AdminStats incremental = stats.getStats();
+        assertEquals(before.today().purchases(), incremental.today().purchases());
+        assertEquals(before.reservationsByStatus().get(Reservation.Status.CANCELLED) + 1,
+                incremental.reservationsByStatus().get(Reservation.Status.CANCELLED));
+
+        AdminStats rebuilt = stats.rebuild();
+        assertEquals(rebuilt.fleet(), incremental.fleet());
+        assertEquals(rebuilt.reservationsByStatus(), incremental.reservationsByStatus());
+        assertEquals(rebuilt.allTime(), incremental.allTime());
+        assertEquals(rebuilt.today(), incremental.today());
+        assertEquals(stats.getDaily(MAY_1, MAY_1.plusDays(10)), days);
+
+        reservations.deleteReservation(booked.getId());
+        assertEquals(0, stats.getMonthly(YearMonth.of(2040, 5), YearMonth.of(2040, 5)).get(0).reservations());
+    }
+}
@@ -0,0 +1,157 @@
+package luxuryride.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import luxuryride.dto.CarSummary;
+import luxuryride.entities.Car;
+import luxuryride.events.CarChangedEvent;
+import luxuryride.events.CarsImportedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarChangeStreamTest {
+
+    private static final Pattern LAST_ID = Pattern.compile("(?s).*id: (\\d+)\n");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private CarChangeStream stream;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        stream.stop();
+    }
+
+    @Test
+    void onlyChangesToStreamedFieldsAreSent() throws Exception {
+        stream = stream(16, 16, Duration.ofMillis(500));
+        stream.load(List.of(car(1, true, true, 100)));
+        StreamingResponseBody subscriber = stream.subscribe(null);
+
+        // a rental bumps the car's version but changes nothing the pages show
+        stream.onCarChanged(CarChangedEvent.saved(new Car(1L, "Porsche", "911", "P1", 100,
+                true, true, false, "a new description")));
+        stream.onCarChanged(new CarChangedEvent(1L, car(1, false, true, 100)));
+        stream.onCarChanged(CarChangedEvent.deleted(1L));
+        awaitEvents(2);
+
+        String body = write(subscriber);
+        assertTrue(body.startsWith("retry: 3000\n\n"), body);
+        assertEquals(2, count(body, "event: car\n"), body);
+        assertTrue(body.contains("data: {\"id\":1,\"available\":false,\"forRent\":true,\"forSale\":false,"
+                + "\"price\":100.0}\n\n"), body);
+        assertTrue(body.contains("data: {\"id\":1,\"deleted\":true}\n\n"), body);
+        assertEquals(0, stream.size(), "closed at its timeout");
+    }
+
+    @Test
+    void anImportedBatchIsOneReset() throws Exception {
+        stream = stream(2, 16, Duration.ofMillis(500));
+        StreamingResponseBody subscriber = stream.subscribe(null);
+
+        stream.onCarsImported(new CarsImportedEvent(List.of(
+                car(1, true, true, 100), car(2, true, true, 100), car(3, true, true, 100))));
+        // already streamed as part of the batch
+        stream.onCarChanged(new CarChangedEvent(2L, car(2, true, true, 100)));
+        stream.onCarChanged(new CarChangedEvent(3L, car(3, true, true, 150)));
+        awaitEvents(2);
+
+        String body = write(subscriber);
+        assertEquals(1, count(body, "event: reset\ndata: {}\n\n"), body);
+        assertEquals(1, count(body, "event: car\n"), body);
+        assertTrue(body.contains("\"id\":3"), body);
+        assertEquals(0.0, registry.get("luxuryride.stream.evicted").counter().count());
+    }
+
+    @Test
+    void slowSubscriberIsEvictedAndCaughtUpOnReconnect() throws Exception {
+        stream = stream(2, 3, Duration.ofMillis(300));
+        stream.subscribe(null);  // never read
+        StreamingResponseBody first = stream.subscribe(null);
+        for (int i = 1; i <= 2; i++) {
+            stream.onCarChanged(new CarChangedEvent((long) i, car(i, true, true, 100)));
+        }
+        awaitEvents(2);
+        String seen = write(first);
+        String lastSeen = lastId(seen);
+
+        stream.onCarChanged(new CarChangedEvent(3L, car(3, true, true, 100)));
+        awaitEvents(3);
+        assertEquals(1.0, registry.get("luxuryride.stream.evicted").counter().count());
+        assertEquals(0, stream.size());
+
+        // missed one event, which is still in the replay ring
+        String caughtUp = write(stream.subscribe(lastSeen));
+        assertEquals(1, count(caughtUp, "event: car\n"), caughtUp);
+        assertTrue(caughtUp.contains("\"id\":3"), caughtUp);
+
+        // further behind than the ring reaches
+        for (int i = 4; i <= 8; i++) {
+            stream.onCarChanged(new CarChangedEvent((long) i, car(i, true, true, 100)));
+        }
+        awaitEvents(8);
+        String reset = write(stream.subscribe(lastSeen));
+        assertTrue(reset.contains("event: reset\n"), reset);
+        assertEquals(0, count(reset, "event: car\n"), reset);
+        assertEquals(lastId(reset), lastId(write(stream.subscribe("not-an-id"))));
+    }
+
+    @Test
+    void subscribersBeyondTheLimitAreRefused() throws InterruptedException {
+        stream = stream(4, 4, Duration.ofMillis(100));
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(stream.subscribe(null));
+        }
+        assertNull(stream.subscribe(null));
+    }
+
+    private CarChangeStream stream(int bufferSize, int replaySize, Duration timeout) {
+        CarChangeStream stream = new CarChangeStream(new ObjectMapper(), registry, bufferSize, replaySize, 3,
+                Duration.ofSeconds(15), timeout, Duration.ofSeconds(3));
+        stream.start();
+        return stream;
+    }
+
+    /** Runs the subscriber's writer to the end of its stream (its timeout). */
+    private static String write(StreamingResponseBody subscriber) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        subscriber.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void awaitEvents(double published) throws InterruptedException {
+        await(() -> registry.get("luxuryride.stream.events").counter().count() >= published);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static String lastId(String body) {
+        Matcher matcher = LAST_ID.matcher(body);
+        assertTrue(matcher.lookingAt(), body);
+        return matcher.group(1);
+    }
+
+    private static int count(String body, String part) {
+        return body.split(Pattern.quote(part), -1).length - 1;
+    }
+
+    private static CarSummary car(long id, boolean available, boolean forRent, double price) {
+        return new CarSummary(id, "Porsche", "911", "P" + id, price, available, forRent, false);
+    }
+}
@@ -11,25 +11,39 @@ import { Label } from "@/components/ui/label"
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card"
 import { Shield } from "lucide-react"
 
+const API_URL = process.env.NEXT_PUBLIC_API_URL ?? "http://localhost:8080"
+
 export default function AdminLoginPage() {
   const [email, setEmail] = useState("")
   const [password, setPassword] = useState("")
   const [isLoading, setIsLoading] = useState(false)
+  const [error, setError] = useState("")
   const router = useRouter()
 
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault()
     setIsLoading(true)
+    setError("")
 
-    // Simulate API call
-    setTimeout(() => {
-      // Mock authentication - in real app, validate with backend
-      if (email && password) {
-        localStorage.setItem("adminAuth", "true")
+    try {
+      const res = await fetch(`${API_URL}/api/auth/login`, {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify({ username: email, password }),
+      })
+      const auth = res.ok ? await res.json() : null
+      if (auth && auth.authorities.includes("ROLE_ADMIN")) {
+        // bearer token for the admin API calls; the admin pages only check that it is there
+        localStorage.setItem("adminAuth", auth.token)
         router.push("/admin/dashboard")
+      } else {
+        setError("Invalid admin credentials")
       }
+    } catch {
+      setError("Could not reach the server")
+    } finally {
       setIsLoading(false)
-    }, 1000)
+    }
   }
 
   return (
@@ -45,11 +59,11 @@ export default function AdminLoginPage() {
         <CardContent>
           <form onSubmit={handleSubmit} className="space-y-4">
             <div className="space-y-2">
-              <Label htmlFor="email">Admin Email</Label>
+              <Label htmlFor="email">Admin Username</Label>
               <Input
                 id="email"
-                type="email"
-                placeholder="admin@autoprime.com"
+                type="text"
+                placeholder="admin"
                 value={email}
                 onChange={(e) => setEmail(e.target.value)}
                 required
@@ -66,6 +80,7 @@ export default function AdminLoginPage() {
                 required
               />
             </div>
+            {error && <p className="text-sm text-red-600">{error}</p>}
             <Button type="submit" className="w-full bg-red-600 hover:bg-red-700" disabled={isLoading}>
               {isLoading ? "Signing in..." : "Admin Sign In"}
             </Button>